@@ -0,0 +1,92 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**closed-loop HTTP load for hosts without wrk: every connection is a virtual thread sending
+ * GET requests back to back until the duration is over. Prints the lines the bench script keeps
+ * from wrk output. Run with: java bench/HttpLoad.java URL CONNECTIONS SECONDS.*/
+public class HttpLoad {
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        int connections = Integer.parseInt(args[1]);
+        long seconds = Long.parseLong(args[2]);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        long end = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        List<Future<Worker>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                futures.add(executor.submit(() -> new Worker().run(client, request, end)));
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        long requests = 0;
+        long non2xx = 0;
+        long errors = 0;
+        long[] all = new long[0];
+        for (Future<Worker> future : futures) {
+            Worker worker = future.get();
+            requests += worker.count;
+            non2xx += worker.non2xx;
+            errors += worker.errors;
+            int from = all.length;
+            all = Arrays.copyOf(all, from + worker.count);
+            System.arraycopy(worker.latencies, 0, all, from, worker.count);
+        }
+        Arrays.sort(all);
+        System.out.printf("Requests/sec: %.2f%n", requests / elapsed);
+        if (all.length > 0) {
+            System.out.printf("     50%%  %.2fms%n", all[(int) (all.length * 0.50)] / 1e6);
+            System.out.printf("     99%%  %.2fms%n", all[Math.min(all.length - 1, (int) (all.length * 0.99))] / 1e6);
+        }
+        if (errors > 0) {
+            System.out.println("Socket errors: " + errors);
+        }
+        if (non2xx > 0) {
+            System.out.println("Non-2xx or 3xx responses: " + non2xx);
+        }
+    }
+
+    /**one connection's results.*/
+    private static final class Worker {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long non2xx;
+        private long errors;
+
+        private Worker run(HttpClient client, HttpRequest request, long end) {
+            while (System.nanoTime() < end) {
+                long sent = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() >= 400) {
+                        non2xx++;
+                    }
+                } catch (Exception e) {
+                    errors++;
+                    continue;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - sent;
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+#!/bin/sh
+# Platform vs virtual request threads under the same load.
+# Needs curl, wrk (bench/HttpLoad.java is used when wrk is missing) and the PostgreSQL database
+# from application.properties, unless APP_ARGS points the app elsewhere.
+# Results are appended to bench_output.txt.
+# The rate limit is off: all connections come from one address, and GET /posts has its own
+# budget of a few requests per second, so nearly every request would be answered with 429.
+# The adaptive concurrency limit is off too, otherwise the run measures how fast it sheds with 503.
+set -e
+
+URL=${URL:-"http://localhost:8080/posts?limit=20"}
+CONNECTIONS=${CONNECTIONS:-1000}
+THREADS=${THREADS:-8}
+DURATION=${DURATION:-60s}
+SEED=${SEED:-0}
+APP_ARGS=${APP_ARGS:-}
+GRADLE=${GRADLE:-"sh ./gradlew"}
+
+load() {
+    if command -v wrk > /dev/null; then
+        wrk -t"$THREADS" -c"$CONNECTIONS" -d"$1" --latency "$URL"
+    else
+        java bench/HttpLoad.java "$URL" "$CONNECTIONS" "${1%s}"
+    fi
+}
+
+# SEED posts of one user through /posts/import, for databases that start empty
+seed() {
+    [ "$SEED" -gt 0 ] || return 0
+    USER_ID=$(curl -sf -H 'Content-Type: application/json' \
+        -d '{"username":"bench","email":"bench@example.com","password":"benchmark"}' \
+        http://localhost:8080/users/create | sed 's/^{"id":\([0-9]*\).*/\1/')
+    i=0
+    while [ "$i" -lt "$SEED" ]; do
+        i=$((i + 1))
+        echo "{\"title\":\"Post $i\",\"text\":\"Benchmark post number $i\"}"
+    done | curl -sf -H 'Content-Type: application/x-ndjson' --data-binary @- \
+        "http://localhost:8080/posts/import?userId=$USER_ID" > /dev/null
+}
+
+$GRADLE -q bootJar
+JAR=$(ls build/libs/*.jar | grep -v plain | head -n 1)
+
+for virtual in false true; do
+    # shellcheck disable=SC2086
+    java -jar "$JAR" --spring.threads.virtual.enabled="$virtual" --spring.jpa.show-sql=false \
+        --rate-limit.enabled=false --concurrency-limit.enabled=false $APP_ARGS > /dev/null 2>&1 &
+    PID=$!
+    until curl -sf http://localhost:8080/status > /dev/null; do
+        sleep 1
+    done
+    seed
+    load 10s > /dev/null
+    {
+        echo "== spring.threads.virtual.enabled=$virtual, $CONNECTIONS connections, $DURATION, $URL"
+        load "$DURATION" | grep -E "Requests/sec| 99%|Socket errors|Non-2xx"
+    } | tee -a bench_output.txt
+    kill "$PID"
+    wait "$PID" || true
+done
@@ -0,0 +1,52 @@
+package com.example.postproject.cache;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**cache regions, resolved by key prefix.*/
+public enum CacheRegion {
+    USER_POSTS("user_posts_", "user-posts", Duration.ofMinutes(2)),
+    USER_USERNAME("user_username_", "user-username", Duration.ofMinutes(10)),
+    POST("post_", "post", Duration.ofMinutes(10)),
+    USER("user_", "user", Duration.ofMinutes(10)),
+    ALL_USERS("all_users", "all-users", Duration.ofMinutes(1)),
+    OTHER("", "other", Duration.ofMinutes(5));
+
+    /**longer prefixes come first, so "user_posts_" never falls into "user_", whatever the declaration order.*/
+    private static final CacheRegion[] LOOKUP_ORDER = Arrays.stream(values())
+            .sorted(Comparator.comparingInt((CacheRegion region) -> region.prefix.length()).reversed())
+            .toArray(CacheRegion[]::new);
+
+    private final String prefix;
+    private final String propertyName;
+    private final Duration defaultTtl;
+
+    CacheRegion(String prefix, String propertyName, Duration defaultTtl) {
+        this.prefix = prefix;
+        this.propertyName = propertyName;
+        this.defaultTtl = defaultTtl;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    public Duration getDefaultTtl() {
+        return defaultTtl;
+    }
+
+    /**region of the key.*/
+    public static CacheRegion forKey(String key) {
+        for (CacheRegion region : LOOKUP_ORDER) {
+            if (key.startsWith(region.prefix)) {
+                return region;
+            }
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.postproject.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**cache contents persisted to a file and mapped back in after a restart.
+ * Layout: magic, format version, data version, write time, entry count, then per entry
+ * key, region, absolute expiry, value version and payload, then a CRC32 of everything before it.
+ * Opening only indexes the keys; a payload is decoded when its key is first missed.*/
+public final class CacheSnapshot {
+    private static final int MAGIC = 0x50435348;
+    /**bumped whenever the layout above changes.*/
+    static final int FORMAT_VERSION = 2;
+    private static final int TRAILER_BYTES = Long.BYTES;
+
+    private final MappedByteBuffer buffer;
+    private final Codec codec;
+    private final Map<String, Entry> index;
+
+    private CacheSnapshot(MappedByteBuffer buffer, Codec codec, Map<String, Entry> index) {
+        this.buffer = buffer;
+        this.codec = codec;
+        this.index = index;
+    }
+
+    /**turns cached values into bytes and back.*/
+    public interface Codec {
+        /**whether values of the region are persisted at all.*/
+        boolean supports(CacheRegion region);
+
+        /**version of the value's row when it was cached; checked against the database before a restore.*/
+        long version(CacheRegion region, Object value);
+
+        /**serialize one value.*/
+        byte[] encode(CacheRegion region, Object value) throws IOException;
+
+        /**deserialize one value.*/
+        Object decode(CacheRegion region, byte[] bytes) throws IOException;
+    }
+
+    /**value taken from the snapshot and how long it may still be served.*/
+    record Restored(Object value, long remainingMillis) {
+    }
+
+    /**write the live entries of the cache; returns how many were written.
+     * The file is replaced atomically, so a crash mid-write keeps the previous snapshot.*/
+    public static int write(SimpleCache cache, Path path, String dataVersion, Codec codec) throws IOException {
+        Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+        try {
+            CRC32 crc = new CRC32();
+            int[] count = {0};
+            try (OutputStream file = Files.newOutputStream(tmp)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc)));
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                writeString(out, dataVersion);
+                out.writeLong(System.currentTimeMillis());
+                ByteBuffer body = encodeEntries(cache, codec, count);
+                out.writeInt(count[0]);
+                out.write(body.array(), 0, body.limit());
+                out.flush();
+                new DataOutputStream(file).writeLong(crc.getValue());
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return count[0];
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static ByteBuffer encodeEntries(SimpleCache cache, Codec codec, int[] count) throws IOException {
+        ExposedBuffer bytes = new ExposedBuffer();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            cache.forEachEntry((key, region, value, expiresAtMillis) -> {
+                if (!codec.supports(region)) {
+                    return;
+                }
+                byte[] payload;
+                long version;
+                try {
+                    version = codec.version(region, value);
+                    payload = codec.encode(region, value);
+                } catch (IOException | RuntimeException e) {
+                    // an entry that can't be encoded is simply reloaded after the restart
+                    return;
+                }
+                try {
+                    writeString(out, key);
+                    out.writeByte(region.ordinal());
+                    out.writeLong(expiresAtMillis);
+                    out.writeLong(version);
+                    out.writeInt(payload.length);
+                    out.write(payload);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return ByteBuffer.wrap(bytes.array(), 0, bytes.size());
+    }
+
+    /**map and index a snapshot; empty if the file is missing, damaged or of another version.*/
+    public static Optional<CacheSnapshot> open(Path path, String dataVersion, Codec codec) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < TRAILER_BYTES || size > Integer.MAX_VALUE) {
+                return Optional.empty();
+            }
+            // the mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        try {
+            return index(buffer, dataVersion, codec, System.currentTimeMillis());
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException
+                 | NegativeArraySizeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<CacheSnapshot> index(MappedByteBuffer buffer, String dataVersion, Codec codec,
+                                                 long nowMillis) {
+        int end = buffer.capacity() - TRAILER_BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, end));
+        if (crc.getValue() != buffer.getLong(end)) {
+            return Optional.empty();
+        }
+        ByteBuffer in = buffer.duplicate().limit(end);
+        if (in.getInt() != MAGIC || in.getInt() != FORMAT_VERSION || !dataVersion.equals(readString(in))) {
+            return Optional.empty();
+        }
+        in.getLong();
+        int count = in.getInt();
+        CacheRegion[] regions = CacheRegion.values();
+        Map<String, Entry> index = new ConcurrentHashMap<>(Math.max(16, count * 4 / 3));
+        for (int i = 0; i < count; i++) {
+            String key = readString(in);
+            CacheRegion region = regions[in.get()];
+            long expiresAtMillis = in.getLong();
+            long version = in.getLong();
+            int length = in.getInt();
+            int offset = in.position();
+            in.position(offset + length);
+            if (expiresAtMillis > nowMillis && region == CacheRegion.forKey(key) && codec.supports(region)) {
+                index.put(key, new Entry(region, expiresAtMillis, version, offset, length));
+            }
+        }
+        return Optional.of(new CacheSnapshot(buffer, codec, index));
+    }
+
+    /**remove and decode the entry of the key; null if absent, expired or unreadable.*/
+    Restored take(String key, long nowMillis) {
+        Entry entry = index.remove(key);
+        if (entry == null || entry.expiresAtMillis <= nowMillis) {
+            return null;
+        }
+        byte[] payload = new byte[entry.length];
+        buffer.get(entry.offset, payload);
+        try {
+            return new Restored(codec.decode(entry.region, payload), entry.expiresAtMillis - nowMillis);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**version of every entry not yet taken or discarded, by key.*/
+    Map<String, Long> versions() {
+        Map<String, Long> versions = new HashMap<>(Math.max(16, index.size() * 4 / 3));
+        index.forEach((key, entry) -> versions.put(key, entry.version));
+        return versions;
+    }
+
+    /**forget the entry, the cache has a newer value or none at all.*/
+    void discard(String key) {
+        index.remove(key);
+    }
+
+    /**entries not yet taken or discarded.*/
+    public int size() {
+        return index.size();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record Entry(CacheRegion region, long expiresAtMillis, long version, int offset, int length) {
+    }
+
+    /**ByteArrayOutputStream without the copy on the way out.*/
+    private static final class ExposedBuffer extends ByteArrayOutputStream {
+        private byte[] array() {
+            return buf;
+        }
+    }
+}
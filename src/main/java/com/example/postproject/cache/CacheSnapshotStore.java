@@ -0,0 +1,212 @@
+package com.example.postproject.cache;
+
+import com.example.postproject.models.Post;
+import com.example.postproject.models.User;
+import com.example.postproject.repository.PostRepository;
+import com.example.postproject.repository.UserRepository;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**warm restarts: saves post entries on shutdown and every cache.snapshot.interval,
+ * maps the file back in at startup. Lists are not saved, they go stale with any write.
+ * Users are not saved either, and a post's author is written without the password:
+ * the file is plain JSON on disk. Before the file is used, every entry's post version is checked
+ * against the database; posts updated or deleted since the save are dropped, and the authors of
+ * the rest are loaded, so a restored post carries its current author rather than the one from the file.
+ * Off unless cache.snapshot.enabled=true.*/
+@Component
+public class CacheSnapshotStore implements CacheSnapshot.Codec {
+    private static final Logger logger = LoggerFactory.getLogger(CacheSnapshotStore.class);
+    private static final Map<CacheRegion, Class<?>> TYPES = Map.of(CacheRegion.POST, Post.class);
+    /**ids per query while checking the snapshot, well under the bind parameter limit of the drivers.*/
+    private static final int CHECK_BATCH = 1000;
+
+    private final SimpleCache cache;
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path path;
+    private final Duration interval;
+    private final String dataVersion;
+    /**current authors of the restored posts, filled before the snapshot is handed to the cache.*/
+    private volatile Map<Long, User> authors = Map.of();
+    private ScheduledExecutorService scheduler;
+
+    @SuppressWarnings({"checkstyle:MissingJavadocMethod"})
+    public CacheSnapshotStore(SimpleCache cache, PostRepository postRepository, UserRepository userRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${cache.snapshot.enabled:false}") boolean enabled,
+                              @Value("${cache.snapshot.path:cache-snapshot.bin}") Path path,
+                              @Value("${cache.snapshot.interval:5m}") Duration interval,
+                              @Value("${cache.snapshot.version:2}") String dataVersion) {
+        this.cache = cache;
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper.copy()
+                .addMixIn(User.class, WithoutPassword.class)
+                .addMixIn(Post.class, WithVersion.class);
+        this.enabled = enabled;
+        this.path = path;
+        this.interval = interval;
+        this.dataVersion = dataVersion;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        restore();
+        if (interval.isPositive()) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "cache-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::save, interval.toMillis(), interval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (!enabled) {
+            return;
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        save();
+    }
+
+    /**write the current cache contents to the snapshot file.*/
+    public synchronized void save() {
+        try {
+            int written = CacheSnapshot.write(cache, path, dataVersion, this);
+            logger.info("Cache snapshot saved: {} entries to {}", written, path);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to save cache snapshot to {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void restore() {
+        try {
+            CacheSnapshot.open(path, dataVersion, this).ifPresentOrElse(snapshot -> {
+                int stale = dropStale(snapshot);
+                cache.restoreFrom(snapshot);
+                logger.info("Cache snapshot mapped: {} live entries from {}, {} stale dropped",
+                        snapshot.size(), path, stale);
+            }, () -> logger.info("No usable cache snapshot at {}, starting cold", path));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to read cache snapshot from {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**discard the entries whose post changed or is gone, load the authors of the others; returns the discarded count.*/
+    private int dropStale(CacheSnapshot snapshot) {
+        Map<String, Long> versions = snapshot.versions();
+        Map<Long, String> keys = new HashMap<>();
+        int stale = 0;
+        for (String key : versions.keySet()) {
+            Long id = postId(key);
+            if (id == null) {
+                snapshot.discard(key);
+                stale++;
+            } else {
+                keys.put(id, key);
+            }
+        }
+        List<Long> ids = new ArrayList<>(keys.keySet());
+        Map<Long, PostRepository.PostVersion> current = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += CHECK_BATCH) {
+            postRepository.findVersions(ids.subList(from, Math.min(ids.size(), from + CHECK_BATCH)))
+                    .forEach(row -> current.put(row.getId(), row));
+        }
+        Set<Long> authorIds = new HashSet<>();
+        for (Map.Entry<Long, String> entry : keys.entrySet()) {
+            PostRepository.PostVersion row = current.get(entry.getKey());
+            if (row == null || !versions.get(entry.getValue()).equals(row.getVersion())) {
+                snapshot.discard(entry.getValue());
+                stale++;
+            } else {
+                authorIds.add(row.getUserId());
+            }
+        }
+        List<Long> userIds = new ArrayList<>(authorIds);
+        Map<Long, User> loaded = new HashMap<>();
+        for (int from = 0; from < userIds.size(); from += CHECK_BATCH) {
+            userRepository.findAllById(userIds.subList(from, Math.min(userIds.size(), from + CHECK_BATCH)))
+                    .forEach(user -> loaded.put(user.getId(), user));
+        }
+        authors = loaded;
+        return stale;
+    }
+
+    private static Long postId(String key) {
+        try {
+            return Long.valueOf(key.substring(CacheRegion.POST.getPrefix().length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean supports(CacheRegion region) {
+        return TYPES.containsKey(region);
+    }
+
+    @Override
+    public long version(CacheRegion region, Object value) {
+        Long version = ((Post) value).getVersion();
+        return version == null ? -1 : version;
+    }
+
+    @Override
+    public byte[] encode(CacheRegion region, Object value) throws IOException {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public Object decode(CacheRegion region, byte[] bytes) throws IOException {
+        Post post = objectMapper.readValue(bytes, Post.class);
+        User author = post.getUser() == null ? null : authors.get(post.getUser().getId());
+        if (author == null) {
+            throw new IOException("author of post " + post.getId() + " is gone");
+        }
+        post.setUser(author);
+        return post;
+    }
+
+    /**keeps User.password out of the snapshot file.*/
+    @JsonIgnoreProperties("password")
+    abstract static class WithoutPassword {
+    }
+
+    /**keeps Post.version in the snapshot file, the API hides it.*/
+    abstract static class WithVersion {
+        @JsonIgnore(false)
+        @JsonProperty
+        private Long version;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.postproject.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**per-region cache counters.
+ * Recording only bumps a preallocated LongAdder, so the hot path does not allocate.*/
+public class CacheStats {
+    private static final int REGIONS = CacheRegion.values().length;
+
+    private final LongAdder[] hits = adders();
+    private final LongAdder[] negativeHits = adders();
+    private final LongAdder[] misses = adders();
+    private final LongAdder[] restores = adders();
+    private final LongAdder[] loads = adders();
+    private final LongAdder[] loadNanos = adders();
+    private final LongAdder[] evictions = adders();
+    private final LongAdder[] oversized = adders();
+    private final LongAdder[] entries = adders();
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[REGIONS];
+        for (int i = 0; i < REGIONS; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    void recordHit(CacheRegion region) {
+        hits[region.ordinal()].increment();
+    }
+
+    /**hit on a cached "not in the database" marker.*/
+    void recordNegativeHit(CacheRegion region) {
+        negativeHits[region.ordinal()].increment();
+    }
+
+    void recordMiss(CacheRegion region) {
+        misses[region.ordinal()].increment();
+    }
+
+    /**miss served from the snapshot of a previous run instead of the database.*/
+    void recordRestore(CacheRegion region) {
+        restores[region.ordinal()].increment();
+    }
+
+    void recordLoad(CacheRegion region, long nanos) {
+        loads[region.ordinal()].increment();
+        loadNanos[region.ordinal()].add(nanos);
+    }
+
+    /**size-based eviction or expiry, not an explicit remove.*/
+    void recordEviction(CacheRegion region) {
+        evictions[region.ordinal()].increment();
+    }
+
+    /**value heavier than a whole segment, not cached at all.*/
+    void recordOversized(CacheRegion region) {
+        oversized[region.ordinal()].increment();
+    }
+
+    void entryAdded(CacheRegion region) {
+        entries[region.ordinal()].increment();
+    }
+
+    void entryRemoved(CacheRegion region) {
+        entries[region.ordinal()].decrement();
+    }
+
+    /**counters of every region, keyed by key prefix.*/
+    public Map<String, Map<String, Long>> snapshot() {
+        Map<String, Map<String, Long>> snapshot = new LinkedHashMap<>();
+        for (CacheRegion region : CacheRegion.values()) {
+            int i = region.ordinal();
+            Map<String, Long> counters = new LinkedHashMap<>();
+            counters.put("hits", hits[i].sum());
+            counters.put("negativeHits", negativeHits[i].sum());
+            counters.put("misses", misses[i].sum());
+            counters.put("restores", restores[i].sum());
+            counters.put("loads", loads[i].sum());
+            counters.put("loadTimeMillis", loadNanos[i].sum() / 1_000_000);
+            counters.put("evictions", evictions[i].sum());
+            counters.put("oversized", oversized[i].sum());
+            counters.put("entries", entries[i].sum());
+            snapshot.put(region == CacheRegion.OTHER ? region.getPropertyName() : region.getPrefix(), counters);
+        }
+        return snapshot;
+    }
+}
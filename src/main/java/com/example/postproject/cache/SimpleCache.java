@@ -1,34 +1,562 @@
 package com.example.postproject.cache;
 
-import java.util.HashMap;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
 
-/**cash realization.*/
+/**cash realization.
+ * Bounded by total weight, segmented LRU eviction (probation + protected),
+ * TTL per {@link CacheRegion}. Reads are lock-free, writes lock one segment.
+ * Each segment holds maximum-weight / segments; a value heavier than that is not cached
+ * and is counted as oversized, instead of evicting the whole segment and then itself.*/
 @Component
 public class SimpleCache {
+    static final long DEFAULT_MAXIMUM_WEIGHT = 10_000;
+    static final int DEFAULT_SEGMENTS = 16;
+    static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofSeconds(30);
+    /**marks a key known to be absent in the database.*/
+    private static final Object ABSENT = new Object();
+    /**share of a segment reserved for entries that were hit at least twice.*/
+    private static final double PROTECTED_SHARE = 0.8;
+    /**attached serialized bytes add one unit of weight per started kilobyte.*/
+    static final int SERIALIZED_BYTES_PER_WEIGHT = 1024;
+
     /**cash class.*/
-    private final Map<String, Object> cache = new HashMap<>();
+    private final Map<String, Node> cache = new ConcurrentHashMap<>();
+    private final Segment[] segments;
+    private final long[] ttlNanos = new long[CacheRegion.values().length];
+    private final long negativeTtlNanos;
+    private final CacheStats stats = new CacheStats();
+    /**loads in progress, one per key; removing a key also drops its flight.*/
+    private final ConcurrentMap<String, CompletableFuture<Optional<?>>> loading = new ConcurrentHashMap<>();
+    /**snapshot of a previous run, consulted on a miss until all of its entries are taken.*/
+    private volatile CacheSnapshot snapshot;
+
+    /**cache configured from application properties.*/
+    @Autowired
+    public SimpleCache(Environment environment) {
+        this(environment.getProperty("cache.maximum-weight", Long.class, DEFAULT_MAXIMUM_WEIGHT),
+                environment.getProperty("cache.segments", Integer.class, DEFAULT_SEGMENTS),
+                ttlsFrom(environment),
+                environment.getProperty("cache.negative-ttl", Duration.class, DEFAULT_NEGATIVE_TTL));
+    }
+
+    /**cache with explicit limits and the default negative TTL.*/
+    public SimpleCache(long maximumWeight, int segmentCount, Map<CacheRegion, Duration> ttls) {
+        this(maximumWeight, segmentCount, ttls, DEFAULT_NEGATIVE_TTL);
+    }
+
+    /**cache with explicit limits.*/
+    public SimpleCache(long maximumWeight, int segmentCount, Map<CacheRegion, Duration> ttls, Duration negativeTtl) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("cache.maximum-weight must be positive");
+        }
+        int count = segmentCount <= 1 ? 1 : Integer.highestOneBit(segmentCount - 1) << 1;
+        long segmentWeight = Math.max(1, (maximumWeight + count - 1) / count);
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(segmentWeight);
+        }
+        for (CacheRegion region : CacheRegion.values()) {
+            Duration ttl = ttls.getOrDefault(region, region.getDefaultTtl());
+            ttlNanos[region.ordinal()] = ttl.isZero() || ttl.isNegative() ? Long.MAX_VALUE : ttl.toNanos();
+        }
+        this.negativeTtlNanos = negativeTtl.toNanos();
+    }
+
+    private static Map<CacheRegion, Duration> ttlsFrom(Environment environment) {
+        Map<CacheRegion, Duration> ttls = new EnumMap<>(CacheRegion.class);
+        for (CacheRegion region : CacheRegion.values()) {
+            ttls.put(region, environment.getProperty("cache.ttl." + region.getPropertyName(),
+                    Duration.class, region.getDefaultTtl()));
+        }
+        return ttls;
+    }
 
-    /**save by key method.*/
+    /**save by key method. Like remove(), drops a load of the key in progress: it read the row
+     * before this write, so its value must not replace the one put here.*/
     public void put(String key, Object value) {
-        cache.put(key, value);
+        if (value == null) {
+            remove(key);
+            return;
+        }
+        Segment segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            loading.remove(key);
+            insert(segment, key, value);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**read-through get: on a miss only one caller runs the loader, concurrent callers
+     * of the same key wait for it and share its result or its exception.
+     * Present results are cached for the region TTL, empty ones for cache.negative-ttl.*/
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> getOrLoad(String key, Supplier<Optional<T>> loader) {
+        Object cached = lookup(key);
+        if (cached != null) {
+            return cached == ABSENT ? Optional.empty() : Optional.of((T) cached);
+        }
+        CompletableFuture<Optional<?>> flight = new CompletableFuture<>();
+        CompletableFuture<Optional<?>> running = loading.putIfAbsent(key, flight);
+        if (running != null) {
+            return (Optional<T>) await(running);
+        }
+        try {
+            Object loadedMeanwhile = peek(key);
+            if (loadedMeanwhile != null) {
+                Optional<T> value = loadedMeanwhile == ABSENT ? Optional.empty() : Optional.of((T) loadedMeanwhile);
+                flight.complete(value);
+                return value;
+            }
+            long start = System.nanoTime();
+            Optional<T> value = loader.get();
+            recordLoad(key, System.nanoTime() - start);
+            if (value.isPresent()) {
+                putIfStillLoading(key, value.get(), flight);
+            } else if (negativeTtlNanos > 0) {
+                putIfStillLoading(key, ABSENT, flight);
+            }
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, flight);
+        }
+    }
+
+    private static Optional<?> await(CompletableFuture<Optional<?>> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**a put() or remove() during the load means the loaded value may already be stale, so it is not cached.*/
+    private void putIfStillLoading(String key, Object value, CompletableFuture<Optional<?>> flight) {
+        Segment segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            if (loading.get(key) == flight) {
+                insert(segment, key, value);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    private void insert(Segment segment, String key, Object value) {
+        CacheRegion region = CacheRegion.forKey(key);
+        insert(segment, key, value, value == ABSENT ? negativeTtlNanos : ttlNanos[region.ordinal()]);
+    }
+
+    private void insert(Segment segment, String key, Object value, long ttl) {
+        CacheRegion region = CacheRegion.forKey(key);
+        discardSnapshotEntry(key);
+        long weight = weigh(value);
+        if (weight > segment.maxWeight) {
+            // the previous value is stale either way
+            Node old = cache.remove(key);
+            if (old != null) {
+                segment.unlink(old);
+            }
+            stats.recordOversized(region);
+            return;
+        }
+        Node node = new Node(key, region, value, weight,
+                ttl == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + ttl);
+        Node old = cache.put(key, node);
+        if (old != null) {
+            segment.unlink(old);
+        }
+        segment.linkProbation(node);
+        segment.evictOverflow();
+    }
+
+    /**live value, ABSENT included, without touching stats or recency.*/
+    private Object peek(String key) {
+        Node node = cache.get(key);
+        return node == null || node.isExpired(System.nanoTime()) ? null : node.value;
     }
 
     /**get by key method.*/
     public Optional<Object> get(String key) {
-        return Optional.ofNullable(cache.get(key));
+        Object value = lookup(key);
+        return value == null || value == ABSENT ? Optional.empty() : Optional.of(value);
+    }
+
+    /**cached value, ABSENT for a known-missing key, null on a miss.*/
+    private Object lookup(String key) {
+        Node node = cache.get(key);
+        if (node == null) {
+            Object restored = snapshot != null ? restore(key) : null;
+            if (restored != null) {
+                stats.recordRestore(CacheRegion.forKey(key));
+                return restored;
+            }
+            stats.recordMiss(CacheRegion.forKey(key));
+            return null;
+        }
+        Segment segment = segmentFor(key);
+        if (node.isExpired(System.nanoTime())) {
+            segment.lock.lock();
+            try {
+                if (cache.remove(key, node)) {
+                    segment.unlink(node);
+                    stats.recordEviction(node.region);
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+            stats.recordMiss(node.region);
+            return null;
+        }
+        // recency is best effort: a busy segment just skips the reorder
+        if (segment.lock.tryLock()) {
+            try {
+                segment.touch(node);
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        if (node.value == ABSENT) {
+            stats.recordNegativeHit(node.region);
+        } else {
+            stats.recordHit(node.region);
+        }
+        return node.value;
+    }
+
+    /**move the key's entry from the snapshot into the cache, no longer than its region TTL allows.
+     * Taken under the segment lock, so a concurrent remove() or put() of the key wins.*/
+    private Object restore(String key) {
+        Segment segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            CacheSnapshot current = snapshot;
+            if (current == null) {
+                return null;
+            }
+            if (cache.containsKey(key)) {
+                return null;
+            }
+            CacheSnapshot.Restored restored = current.take(key, System.currentTimeMillis());
+            if (current.size() == 0) {
+                snapshot = null;
+            }
+            if (restored == null) {
+                return null;
+            }
+            long ttl = Math.min(ttlNanos[CacheRegion.forKey(key).ordinal()],
+                    TimeUnit.MILLISECONDS.toNanos(restored.remainingMillis()));
+            insert(segment, key, restored.value(), ttl);
+            return restored.value();
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    private void discardSnapshotEntry(String key) {
+        CacheSnapshot current = snapshot;
+        if (current != null) {
+            current.discard(key);
+        }
+    }
+
+    /**serve misses from the snapshot of a previous run; entries are decoded on first use.*/
+    public void restoreFrom(CacheSnapshot snapshot) {
+        this.snapshot = snapshot.size() > 0 ? snapshot : null;
+    }
+
+    /**visit live entries, markers for absent keys excluded, with their expiry in epoch millis.*/
+    public void forEachEntry(EntryVisitor visitor) {
+        long nowNanos = System.nanoTime();
+        long nowMillis = System.currentTimeMillis();
+        for (Node node : cache.values()) {
+            if (node.value == ABSENT || node.isExpired(nowNanos)) {
+                continue;
+            }
+            long expiresAtMillis = node.expiresAt == Long.MAX_VALUE
+                    ? Long.MAX_VALUE : nowMillis + TimeUnit.NANOSECONDS.toMillis(node.expiresAt - nowNanos);
+            visitor.visit(node.key, node.region, node.value, expiresAtMillis);
+        }
+    }
+
+    /**callback of {@link #forEachEntry}.*/
+    @FunctionalInterface
+    public interface EntryVisitor {
+        /**one live entry.*/
+        void visit(String key, CacheRegion region, Object value, long expiresAtMillis);
+    }
+
+    /**encoded form of the value cached under the key, e.g. its JSON; empty if the entry is gone
+     * or nothing was attached yet. The array is shared, callers must not modify it.*/
+    public Optional<byte[]> getSerialized(String key) {
+        Node node = cache.get(key);
+        if (node == null || node.serialized == null || node.isExpired(System.nanoTime())) {
+            return Optional.empty();
+        }
+        Segment segment = segmentFor(key);
+        if (segment.lock.tryLock()) {
+            try {
+                segment.touch(node);
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        stats.recordHit(node.region);
+        return Optional.of(node.serialized);
+    }
+
+    /**keep {@code bytes} next to the entry, only if it still holds this very {@code value}.
+     * The bytes live and die with the entry: put, remove, expiry and eviction drop both.
+     * They count against cache.maximum-weight, so attaching them may evict other entries;
+     * bytes that would make the entry heavier than its segment are not attached.*/
+    public void attachSerialized(String key, Object value, byte[] bytes) {
+        Segment segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            Node node = cache.get(key);
+            if (node == null || node.value != value || node.prev == null) {
+                return;
+            }
+            long weight = weigh(node.value) + weighSerialized(bytes);
+            if (weight > segment.maxWeight) {
+                stats.recordOversized(node.region);
+                return;
+            }
+            segment.reweigh(node, weight);
+            node.serialized = bytes;
+            segment.evictOverflow();
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**record how long the database load behind a miss took.*/
+    public void recordLoad(String key, long nanos) {
+        stats.recordLoad(CacheRegion.forKey(key), nanos);
+    }
+
+    /**hit, miss, load and eviction counters.*/
+    public CacheStats getStats() {
+        return stats;
     }
 
     /**delete by key method.*/
     public void remove(String key) {
-        cache.remove(key);
+        Segment segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            loading.remove(key);
+            discardSnapshotEntry(key);
+            Node node = cache.remove(key);
+            if (node != null) {
+                segment.unlink(node);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
     }
 
     /**clear by key method.*/
     public void clear() {
-        cache.clear();
+        snapshot = null;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                loading.keySet().removeIf(key -> segmentFor(key) == segment);
+                segment.clear();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    private Segment segmentFor(String key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return segments[h & (segments.length - 1)];
+    }
+
+    /**entity counts as one, a cached list as its size.*/
+    static long weigh(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return 1L + collection.size();
+        }
+        return 1L;
+    }
+
+    static long weighSerialized(byte[] bytes) {
+        return (bytes.length + SERIALIZED_BYTES_PER_WEIGHT - 1) / SERIALIZED_BYTES_PER_WEIGHT;
+    }
+
+    /**cached value with its place in the eviction queues.*/
+    private static final class Node {
+        private final String key;
+        private final CacheRegion region;
+        private final Object value;
+        private long weight;
+        private final long expiresAt;
+        private Node prev;
+        private Node next;
+        private boolean inProtected;
+        private volatile byte[] serialized;
+
+        private Node(String key, CacheRegion region, Object value, long weight, long expiresAt) {
+            this.key = key;
+            this.region = region;
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt != Long.MAX_VALUE && now - expiresAt >= 0;
+        }
+    }
+
+    /**one lock stripe, guards its own probation and protected lists.*/
+    private final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Node probation = sentinel();
+        private final Node protectedHead = sentinel();
+        private final long maxWeight;
+        private final long maxProtectedWeight;
+        private long weight;
+        private long protectedWeight;
+
+        private Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+            this.maxProtectedWeight = (long) (maxWeight * PROTECTED_SHARE);
+        }
+
+        private Node sentinel() {
+            Node head = new Node(null, CacheRegion.OTHER, null, 0, Long.MAX_VALUE);
+            head.prev = head;
+            head.next = head;
+            return head;
+        }
+
+        private void linkProbation(Node node) {
+            node.inProtected = false;
+            linkLast(probation, node);
+            weight += node.weight;
+            stats.entryAdded(node.region);
+        }
+
+        private void touch(Node node) {
+            if (node.prev == null) {
+                return;
+            }
+            detach(node);
+            if (!node.inProtected) {
+                node.inProtected = true;
+                protectedWeight += node.weight;
+            }
+            linkLast(protectedHead, node);
+            while (protectedWeight > maxProtectedWeight && protectedHead.next != protectedHead) {
+                Node demoted = protectedHead.next;
+                detach(demoted);
+                demoted.inProtected = false;
+                protectedWeight -= demoted.weight;
+                linkLast(probation, demoted);
+            }
+        }
+
+        /**change the weight of a linked node, e.g. when serialized bytes are attached to it.*/
+        private void reweigh(Node node, long newWeight) {
+            long delta = newWeight - node.weight;
+            node.weight = newWeight;
+            weight += delta;
+            if (node.inProtected) {
+                protectedWeight += delta;
+            }
+        }
+
+        private void unlink(Node node) {
+            if (node.prev == null) {
+                return;
+            }
+            detach(node);
+            weight -= node.weight;
+            if (node.inProtected) {
+                protectedWeight -= node.weight;
+            }
+            stats.entryRemoved(node.region);
+        }
+
+        private void evictOverflow() {
+            while (weight > maxWeight) {
+                Node victim = probation.next != probation ? probation.next : protectedHead.next;
+                if (victim == protectedHead) {
+                    return;
+                }
+                cache.remove(victim.key, victim);
+                unlink(victim);
+                stats.recordEviction(victim.region);
+            }
+        }
+
+        private void clear() {
+            drop(probation);
+            drop(protectedHead);
+            probation.prev = probation;
+            probation.next = probation;
+            protectedHead.prev = protectedHead;
+            protectedHead.next = protectedHead;
+            weight = 0;
+            protectedWeight = 0;
+        }
+
+        private void drop(Node head) {
+            Node node = head.next;
+            while (node != head) {
+                Node next = node.next;
+                cache.remove(node.key, node);
+                stats.entryRemoved(node.region);
+                node.prev = null;
+                node.next = null;
+                node = next;
+            }
+        }
+
+        private void linkLast(Node head, Node node) {
+            node.prev = head.prev;
+            node.next = head;
+            head.prev.next = node;
+            head.prev = node;
+        }
+
+        private void detach(Node node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,126 @@
+package com.example.postproject.concurrency;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**concurrency limit that follows measured latency, gradient style. A short and a long moving
+ * average of request time are kept; while the short one stays within tolerance times the long one
+ * the limit grows by about sqrt(limit), once requests start to queue the short average rises and
+ * the limit shrinks in proportion. Acquiring is a CAS on the in-flight count; the update is skipped
+ * when another thread holds it, so no request waits for the bookkeeping.*/
+@Component
+public class AdaptiveConcurrencyLimit {
+    /**weight of a sample in the short average, about the last ten requests.*/
+    private static final double SHORT_ALPHA = 0.1;
+    /**weight of a sample in the long average, about the last six hundred.*/
+    private static final double LONG_ALPHA = 1.0 / 600;
+    /**how far a step moves the limit toward its new target.*/
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private volatile double limit;
+    private volatile double shortRtt;
+    private volatile double longRtt;
+
+    @SuppressWarnings({"checkstyle:MissingJavadocMethod"})
+    public AdaptiveConcurrencyLimit(@Value("${concurrency-limit.initial:20}") int initialLimit,
+                                    @Value("${concurrency-limit.min:4}") int minLimit,
+                                    @Value("${concurrency-limit.max:200}") int maxLimit,
+                                    @Value("${concurrency-limit.tolerance:1.5}") double tolerance) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (tolerance < 1) {
+            throw new IllegalArgumentException("Tolerance must be at least 1");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+    }
+
+    /**take a slot, or false if the limit is reached and the request should be shed.*/
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**give the slot back with the time the request took; 0 gives it back without a sample.*/
+    public void release(long rttNanos) {
+        int current = inFlight.getAndDecrement();
+        if (rttNanos <= 0 || !updateLock.tryLock()) {
+            return;
+        }
+        try {
+            update(rttNanos, current);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void update(double rtt, int inFlightAtRelease) {
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+            return;
+        }
+        shortRtt += (rtt - shortRtt) * SHORT_ALPHA;
+        longRtt += (rtt - longRtt) * LONG_ALPHA;
+        if (longRtt > 2 * shortRtt) {
+            // load fell off a cliff, let the baseline catch up instead of over-growing for minutes
+            longRtt *= 0.95;
+        }
+        double current = limit;
+        if (inFlightAtRelease < current / 2) {
+            // far below the limit says nothing about whether a higher one would hold
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    /**current limit, rounded down as tryAcquire uses it.*/
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**numbers for /api/stats.*/
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("limit", getLimit());
+        snapshot.put("inFlight", getInFlight());
+        snapshot.put("rejected", getRejected());
+        snapshot.put("shortRttMillis", shortRtt / TimeUnit.MILLISECONDS.toNanos(1));
+        snapshot.put("longRttMillis", longRtt / TimeUnit.MILLISECONDS.toNanos(1));
+        return snapshot;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.postproject.concurrency;
+
+import com.example.postproject.exceptions.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**sheds load past the adaptive concurrency limit with an immediate 503, before the request
+ * reaches a handler or its body is read. Stats and status stay reachable, so an overloaded
+ * instance can still be looked at. Export and import hold a slot like any request, but their
+ * time is not fed to the limit: they stream for as long as the data lasts, and a few of them
+ * would look like queueing and drive the limit down to its minimum.*/
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    /**bulk transfers whose duration says nothing about queueing.*/
+    static final Set<String> UNSAMPLED_PATHS = Set.of("/posts/export", "/posts/import");
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    @SuppressWarnings({"checkstyle:MissingJavadocMethod"})
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimit limit, ObjectMapper objectMapper,
+                                  @Value("${concurrency-limit.enabled:true}") boolean enabled) {
+        this.limit = limit;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !enabled || path.startsWith("/api/stats") || path.equals("/status");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!limit.tryAcquire()) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ErrorResponse("Service Unavailable", "Server is overloaded, retry later"));
+            return;
+        }
+        long start = System.nanoTime();
+        boolean sampled = !UNSAMPLED_PATHS.contains(request.getRequestURI());
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                request.getAsyncContext().addListener(new ReleaseListener(start, sampled));
+            } else {
+                release(start, sampled);
+            }
+        }
+    }
+
+    /**a release with no time frees the slot and leaves the averages alone.*/
+    private void release(long start, boolean sampled) {
+        limit.release(sampled ? System.nanoTime() - start : 0);
+    }
+
+    /**an async request holds its slot until the response is done.*/
+    private final class ReleaseListener implements AsyncListener {
+        private final long start;
+        private final boolean sampled;
+
+        private ReleaseListener(long start, boolean sampled) {
+            this.start = start;
+            this.sampled = sampled;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(start, sampled);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // onComplete follows
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // onComplete follows
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
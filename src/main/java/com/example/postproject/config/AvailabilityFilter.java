@@ -0,0 +1,117 @@
+package com.example.postproject.config;
+
+import com.example.postproject.models.ServerStatus;
+import com.example.postproject.singleton.ServerStatusSingleton;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**turns requests away while the service is switched off through /status, before the request
+ * reaches a handler or its body is read. The check is one volatile read. While draining, reads
+ * still pass and writes already admitted finish; writesInFlight tells when it is safe to stop.*/
+@Component
+public class AvailabilityFilter extends OncePerRequestFilter {
+    static final String UNAVAILABLE_PAGE = "/unavailable";
+    private static final String UNAVAILABLE = "Сервис временно недоступен. Пожалуйста, попробуйте позже.";
+    private static final String DRAINING = "Сервис не принимает новые изменения. Пожалуйста, попробуйте позже.";
+
+    private final ServerStatus serverStatus;
+
+    @SuppressWarnings({"checkstyle:MissingJavadocMethod"})
+    public AvailabilityFilter() {
+        this(ServerStatusSingleton.getInstance());
+    }
+
+    AvailabilityFilter(ServerStatus serverStatus) {
+        this.serverStatus = serverStatus;
+    }
+
+    /**only the API and the main page are switched off; status, stats and docs stay reachable.*/
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !path.equals("/") && !path.startsWith("/posts") && !path.startsWith("/users");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ServerStatus.State state = serverStatus.getState();
+        boolean write = isWrite(request);
+        if (state == ServerStatus.State.UNAVAILABLE || (state == ServerStatus.State.DRAINING && write)) {
+            reject(request, response, state);
+            return;
+        }
+        if (!write) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        AtomicInteger writesInFlight = serverStatus.getWritesInFlight();
+        writesInFlight.incrementAndGet();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                request.getAsyncContext().addListener(new WriteDoneListener(writesInFlight));
+            } else {
+                writesInFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, ServerStatus.State state)
+            throws ServletException, IOException {
+        if (request.getRequestURI().equals("/")) {
+            request.getRequestDispatcher(UNAVAILABLE_PAGE).forward(request, response);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(state == ServerStatus.State.DRAINING ? DRAINING : UNAVAILABLE);
+    }
+
+    /**an async write stays in flight until the response is done.*/
+    private static final class WriteDoneListener implements AsyncListener {
+        private final AtomicInteger writesInFlight;
+
+        private WriteDoneListener(AtomicInteger writesInFlight) {
+            this.writesInFlight = writesInFlight;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            writesInFlight.decrementAndGet();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // onComplete follows
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // onComplete follows
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.postproject.config;
+
+import com.example.postproject.metrics.LatencyRegistry;
+import com.example.postproject.services.RequestCounter;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**counts and times every request once, keyed by HTTP method and matched route.*/
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    private static final String UNMAPPED = "unmapped";
+
+    private final RequestCounter requestCounter;
+    private final LatencyRegistry latencyRegistry;
+
+    @SuppressWarnings({"checkstyle:MissingJavadocMethod"})
+    public RequestMetricsFilter(RequestCounter requestCounter, LatencyRegistry latencyRegistry) {
+        this.requestCounter = requestCounter;
+        this.latencyRegistry = latencyRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(request, start));
+            } else {
+                record(request, start);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, long start) {
+        String route = routeOf(request);
+        requestCounter.record(request.getMethod(), route);
+        latencyRegistry.recordRoute(request.getMethod() + " " + route, System.nanoTime() - start);
+    }
+
+    /**route template such as /posts/{id}, so path variables don't explode the key space.*/
+    static String routeOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNMAPPED;
+    }
+
+    /**records async requests when the response is actually done.*/
+    private final class CompletionListener implements AsyncListener {
+        private final HttpServletRequest request;
+        private final long start;
+
+        private CompletionListener(HttpServletRequest request, long start) {
+            this.request = request;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(request, start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // onComplete follows
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // onComplete follows
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -2,8 +2,11 @@ package com.example.postproject.controllers;
 
 import com.example.postproject.models.Post;
 import com.example.postproject.models.User;
+import com.example.postproject.services.AsyncDbExecutor;
+import com.example.postproject.services.CollectionVersions;
+import com.example.postproject.services.PostExportService;
+import com.example.postproject.services.PostImportService;
 import com.example.postproject.services.PostService;
-import com.example.postproject.services.StatusService;
 import com.example.postproject.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,8 +15,15 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,22 +34,37 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 /**post controller.*/
 @Tag(name = "Post Controller", description = "API для управления постами")
 @RestController
 @RequestMapping("/posts")
 public class PostController {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
     private final PostService postService;
     private final UserService userService;
-    private final StatusService statusService;
+    private final PostExportService postExportService;
+    private final PostImportService postImportService;
+    private final AsyncDbExecutor asyncDbExecutor;
+    private final CollectionVersions collectionVersions;
+    private final long exportTimeoutMillis;
 
     @SuppressWarnings({"checkstyle:MissingJavadocMethod"})
     public PostController(PostService postService, UserService userService,
-                          StatusService statusService) {
+                          PostExportService postExportService,
+                          PostImportService postImportService, AsyncDbExecutor asyncDbExecutor,
+                          CollectionVersions collectionVersions,
+                          @Value("${posts.export.timeout:1h}") Duration exportTimeout) {
         this.postService = postService;
         this.userService = userService;
-        this.statusService = statusService;
+        this.postExportService = postExportService;
+        this.postImportService = postImportService;
+        this.asyncDbExecutor = asyncDbExecutor;
+        this.collectionVersions = collectionVersions;
+        this.exportTimeoutMillis = exportTimeout.toMillis();
     }
 
     /**create post.*/
@@ -48,32 +73,76 @@ public class PostController {
       @ApiResponse(responseCode = "200", description = "Пост успешно создан",
                     content = @Content(schema = @Schema(implementation = Post.class))),
       @ApiResponse(responseCode = "404", description = "Пользователь не найден"),
-      @ApiResponse(responseCode = "503", description = "Сервис временно недоступен")
+      @ApiResponse(responseCode = "503", description = "Сервис временно недоступен или очередь записи переполнена")
     })
     @PostMapping("/create")
-    public ResponseEntity<?> createPost(
+    public CompletableFuture<ResponseEntity<?>> createPost(
             @Parameter(description = "Данные поста", required = true)
             @RequestBody Post post,
             @Parameter(description = "ID пользователя", required = true)
             @RequestParam Long userId) {
-        if (!statusService.isServerAvailable()) {
-            return ResponseEntity.status(503).body("Сервис временно недоступен. Пожалуйста, попробуйте позже.");
-        }
         User user = userService.getUserById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
-        return ResponseEntity.ok(postService.createPost(post, user));
+        return postService.createPostAsync(post, user).<ResponseEntity<?>>thenApply(ResponseEntity::ok);
     }
 
     /**get posts.*/
-    @Operation(summary = "Получить все посты", description = "Возвращает список всех постов")
+    @Operation(summary = "Получить все посты",
+            description = "Возвращает список всех постов, с after или limit - страницу постов и курсор следующей")
     @ApiResponse(responseCode = "200", description = "Список постов",
             content = @Content(schema = @Schema(implementation = Post.class)))
     @GetMapping
-    public ResponseEntity<?> getAllPosts() {
-        if (!statusService.isServerAvailable()) {
-            return ResponseEntity.status(503).body("Сервис временно недоступен. Пожалуйста, попробуйте позже.");
+    public ResponseEntity<?> getAllPosts(
+            @Parameter(description = "ID последнего поста предыдущей страницы")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Размер страницы")
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(collectionVersions.postsETag())) {
+            return null;
         }
-        return ResponseEntity.ok(postService.getAllPosts());
+        if (after == null && limit == null) {
+            return ResponseEntity.ok(postService.getAllPosts());
+        }
+        return ResponseEntity.ok(postService.getPostsPage(after, limit != null ? limit : DEFAULT_PAGE_SIZE));
+    }
+
+    /**export posts.*/
+    @Operation(summary = "Выгрузить все посты", description = "Отдает все посты потоком в формате NDJSON, по одному на строку")
+    @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Поток постов"),
+      @ApiResponse(responseCode = "503", description = "Сервис временно недоступен")
+    })
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public WebAsyncTask<Void> exportPosts(HttpServletResponse response) {
+        // a StreamingResponseBody would get spring.mvc.async.request-timeout and be cut off mid-table
+        return new WebAsyncTask<>(exportTimeoutMillis, () -> {
+            response.setContentType(NDJSON.toString());
+            response.setCharacterEncoding("UTF-8");
+            postExportService.exportPosts(response.getOutputStream());
+            return null;
+        });
+    }
+
+    /**search posts.*/
+    @Operation(summary = "Поиск постов", description = "Полнотекстовый поиск по заголовку и тексту, лучшие совпадения первыми")
+    @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Найденные посты",
+                    content = @Content(schema = @Schema(implementation = Post.class))),
+      @ApiResponse(responseCode = "400", description = "Пустой запрос или неверные параметры"),
+      @ApiResponse(responseCode = "503", description = "Сервис временно недоступен")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<?> searchPosts(
+            @Parameter(description = "Поисковый запрос", required = true)
+            @RequestParam String q,
+            @Parameter(description = "AND - все слова, OR - любое из слов")
+            @RequestParam(defaultValue = "AND") String mode,
+            @Parameter(description = "Сколько лучших совпадений пропустить")
+            @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "Сколько постов вернуть")
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(postService.searchPosts(q, mode, offset, limit));
     }
 
     /**get post by id.*/
@@ -87,12 +156,13 @@ public class PostController {
     @GetMapping("/{id}")
     public ResponseEntity<?> getPostById(
             @Parameter(description = "ID поста", required = true)
-            @PathVariable Long id) {
-        if (!statusService.isServerAvailable()) {
-            return ResponseEntity.status(503).body("Сервис временно недоступен. Пожалуйста, попробуйте позже.");
+            @PathVariable Long id,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(collectionVersions.postsETag())) {
+            return null;
         }
-        Optional<Post> post = postService.getPostById(id);
-        return post.map(ResponseEntity::ok)
+        return postService.getPostJson(id)
+                .<ResponseEntity<?>>map(PostController::json)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -110,9 +180,6 @@ public class PostController {
             @PathVariable Long id,
             @Parameter(description = "Обновленные данные поста", required = true)
             @RequestBody Post postDetails) {
-        if (!statusService.isServerAvailable()) {
-            return ResponseEntity.status(503).body("Сервис временно недоступен. Пожалуйста, попробуйте позже.");
-        }
         return ResponseEntity.ok(postService.updatePost(id, postDetails));
     }
 
@@ -127,9 +194,6 @@ public class PostController {
     public ResponseEntity<?> deletePost(
             @Parameter(description = "ID поста", required = true)
             @PathVariable Long id) {
-        if (!statusService.isServerAvailable()) {
-            return ResponseEntity.status(503).body("Сервис временно недоступен. Пожалуйста, попробуйте позже.");
-        }
         postService.deletePost(id);
         return ResponseEntity.noContent().build();
     }
@@ -149,31 +213,124 @@ public class PostController {
             @RequestBody List<Post> posts,
             @Parameter(description = "ID пользователя", required = true)
             @RequestParam Long userId) {
-        if (!statusService.isServerAvailable()) {
-            return ResponseEntity.status(503).body("Сервис временно недоступен. Пожалуйста, попробуйте позже.");
-        }
         User user = userService.getUserById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
         return ResponseEntity.ok(postService.bulkCreatePosts(posts, user));
     }
 
+    /**streaming import of posts.*/
+    @Operation(summary = "Импортировать посты",
+            description = "Принимает JSON-массив или NDJSON любого размера, сохраняет посты частями и возвращает итог")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Количество принятых и отклоненных постов"),
+            @ApiResponse(responseCode = "404", description = "Пользователь не найден"),
+            @ApiResponse(responseCode = "503", description = "Сервис временно недоступен")
+    })
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<?> importPosts(
+            @Parameter(description = "ID пользователя", required = true)
+            @RequestParam Long userId,
+            HttpServletRequest request) throws IOException {
+        User user = userService.getUserById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        return ResponseEntity.ok(postImportService.importPosts(request.getInputStream(), user));
+    }
+
     /**get post by username.*/
-    @Operation(summary = "Получить посты пользователя", description = "Возвращает все посты указанного пользователя")
+    @Operation(summary = "Получить посты пользователя",
+            description = "Возвращает все посты пользователя, новые первыми; с before или limit - страницу ленты и курсор следующей")
     @ApiResponses(value = {
-      @ApiResponse(responseCode = "200", description = "Список постов пользователя",
+      @ApiResponse(responseCode = "200", description = "Список постов пользователя или страница",
                     content = @Content(schema = @Schema(implementation = Post.class))),
       @ApiResponse(responseCode = "503", description = "Сервис временно недоступен")
     })
     @GetMapping("/byuser/{username}")
     public ResponseEntity<?> getPostsByUser(
             @Parameter(description = "Имя пользователя", required = true)
-            @PathVariable String username) {
-        if (!statusService.isServerAvailable()) {
-            return ResponseEntity.status(503).body("Сервис временно недоступен");
+            @PathVariable String username,
+            @Parameter(description = "Курсор nextCursor предыдущей страницы")
+            @RequestParam(required = false) String before,
+            @Parameter(description = "Размер страницы")
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(collectionVersions.postsETag())) {
+            return null;
         }
-        List<Post> posts = postService.getPostsByUsername(username);
-        return ResponseEntity.ok(posts);
+        if (before == null && limit == null) {
+            List<Post> posts = postService.getPostsByUsername(username);
+            return ResponseEntity.ok(posts);
+        }
+        return json(postService.getUserTimelineJson(username, before, limit != null ? limit : DEFAULT_PAGE_SIZE));
     }
 
+    /**JSON encoded by the service, written out as is.*/
+    private static ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**get posts without holding the request thread.*/
+    @Operation(summary = "Получить все посты асинхронно",
+            description = "То же, что GET /posts, но запрос к базе выполняется в отдельном ограниченном пуле")
+    @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Список постов или страница",
+                    content = @Content(schema = @Schema(implementation = Post.class))),
+      @ApiResponse(responseCode = "503", description = "Сервис недоступен, пул перегружен или истек таймаут")
+    })
+    @GetMapping("/async")
+    public CompletableFuture<ResponseEntity<?>> getAllPostsAsync(
+            @Parameter(description = "ID последнего поста предыдущей страницы")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Размер страницы")
+            @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return asyncDbExecutor.submit(() -> ResponseEntity.ok(postService.getAllPosts()));
+        }
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        return asyncDbExecutor.submit(() -> ResponseEntity.ok(postService.getPostsPage(after, pageSize)));
+    }
 
-}
\ No newline at end of file
+    /**get post by id without holding the request thread.*/
+    @Operation(summary = "Получить пост по ID асинхронно",
+            description = "Попадание в кэш отвечает сразу, промах уходит в отдельный ограниченный пул")
+    @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Пост найден",
+                    content = @Content(schema = @Schema(implementation = Post.class))),
+      @ApiResponse(responseCode = "404", description = "Пост не найден"),
+      @ApiResponse(responseCode = "503", description = "Сервис недоступен, пул перегружен или истек таймаут")
+    })
+    @GetMapping("/async/{id}")
+    public CompletableFuture<ResponseEntity<?>> getPostByIdAsync(
+            @Parameter(description = "ID поста", required = true)
+            @PathVariable Long id) {
+        Optional<Post> cached = postService.getCachedPost(id);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(ResponseEntity.ok(cached.get()));
+        }
+        return asyncDbExecutor.submit(() -> postService.getPostById(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+
+    /**get posts by username without holding the request thread.*/
+    @Operation(summary = "Получить посты пользователя асинхронно",
+            description = "То же, что GET /posts/byuser/{username}, но в отдельном ограниченном пуле")
+    @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Список постов пользователя",
+                    content = @Content(schema = @Schema(implementation = Post.class))),
+      @ApiResponse(responseCode = "503", description = "Сервис недоступен, пул перегружен или истек таймаут")
+    })
+    @GetMapping("/async/byuser/{username}")
+    public CompletableFuture<ResponseEntity<?>> getPostsByUserAsync(
+            @Parameter(description = "Имя пользователя", required = true)
+            @PathVariable String username,
+            @Parameter(description = "Курсор nextCursor предыдущей страницы")
+            @RequestParam(required = false) String before,
+            @Parameter(description = "Размер страницы")
+            @RequestParam(required = false) Integer limit) {
+        if (before == null && limit == null) {
+            return asyncDbExecutor.submit(() -> ResponseEntity.ok(postService.getPostsByUsername(username)));
+        }
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        return asyncDbExecutor.submit(() -> ResponseEntity.ok(postService.getUserTimeline(username, before, pageSize)));
+    }
+}
@@ -1,26 +1,64 @@
 package com.example.postproject.controllers;
 
+import com.example.postproject.cache.SimpleCache;
+import com.example.postproject.concurrency.AdaptiveConcurrencyLimit;
+import com.example.postproject.metrics.LatencyRegistry;
 import com.example.postproject.services.RequestCounter;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/stats")
 public class StatsController {
     private final RequestCounter requestCounter;
+    private final SimpleCache cache;
+    private final LatencyRegistry latencyRegistry;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
 
-    public StatsController(RequestCounter requestCounter) {
+    public StatsController(RequestCounter requestCounter, SimpleCache cache, LatencyRegistry latencyRegistry,
+                           AdaptiveConcurrencyLimit concurrencyLimit) {
         this.requestCounter = requestCounter;
+        this.cache = cache;
+        this.latencyRegistry = latencyRegistry;
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    @GetMapping
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalRequests", requestCounter.getCount());
+        stats.put("cache", cache.getStats().snapshot());
+        stats.put("concurrency", concurrencyLimit.snapshot());
+        return stats;
+    }
+
+    @GetMapping("/cache")
+    public Map<String, Map<String, Long>> getCacheStats() {
+        return cache.getStats().snapshot();
     }
 
     @GetMapping("/requests")
-    public Map<String, Integer> getRequestCount() {
-        return Map.of("totalRequests", requestCounter.getCount());
+    public Map<String, Object> getRequestCount() {
+        Map<String, Object> requests = new LinkedHashMap<>();
+        requests.put("totalRequests", requestCounter.getCount());
+        requests.put("routes", requestCounter.getRoutes());
+        return requests;
+    }
+
+    @GetMapping("/concurrency")
+    public Map<String, Object> getConcurrency() {
+        return concurrencyLimit.snapshot();
+    }
+
+    @GetMapping("/latency")
+    public Map<String, Object> getLatency() {
+        return latencyRegistry.snapshot();
     }
 
     @PostMapping("/requests/reset")
     public void resetCounter() {
         requestCounter.reset();
     }
-}
\ No newline at end of file
+}
@@ -6,6 +6,7 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import java.util.Map;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -31,16 +32,23 @@ public class StatusController {
       @ApiResponse(responseCode = "503", description = "Сервис временно недоступен")
     })
     @GetMapping("/")
-    public String index(Model model) {
-        if (!statusService.isServerAvailable()) {
-            model.addAttribute("message", "Сервис временно недоступен. Иди меняй статус.");
-            return "error";
-        }
+    public String index() {
         return "index";
     }
 
+    /**page the availability filter forwards the main page to while the service is off.*/
+    @Operation(summary = "Страница недоступности", description = "Показывается вместо главной страницы, пока сервис выключен")
+    @ApiResponse(responseCode = "503", description = "Сервис временно недоступен")
+    @GetMapping("/unavailable")
+    public String unavailable(Model model, HttpServletResponse response) {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        model.addAttribute("message", "Сервис временно недоступен. Иди меняй статус.");
+        return "error";
+    }
+
     /**get status of service.*/
-    @Operation(summary = "Проверить/изменить статус", description = "Возвращает текущий статус сервиса или изменяет его")
+    @Operation(summary = "Проверить/изменить статус",
+            description = "Возвращает текущий статус сервиса или изменяет его (available, draining, unavailable)")
     @ApiResponse(responseCode = "200", description = "Текущий статус сервиса")
     @GetMapping("/status")
     @ResponseBody
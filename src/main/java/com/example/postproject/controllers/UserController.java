@@ -1,7 +1,8 @@
 package com.example.postproject.controllers;
 
 import com.example.postproject.models.User;
-import com.example.postproject.services.StatusService;
+import com.example.postproject.services.AsyncDbExecutor;
+import com.example.postproject.services.CollectionVersions;
 import com.example.postproject.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,6 +12,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,20 +22,26 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 /**user controller.*/
 @Tag(name = "User Controller", description = "API для управления пользователями")
 @RestController
 @RequestMapping("/users")
 public class UserController {
+    private static final int DEFAULT_PAGE_SIZE = 20;
     private final UserService userService;
-    private final StatusService statusService;
+    private final AsyncDbExecutor asyncDbExecutor;
+    private final CollectionVersions collectionVersions;
 
     @SuppressWarnings({"checkstyle:MissingJavadocMethod"})
-    public UserController(UserService userService, StatusService statusService) {
+    public UserController(UserService userService, AsyncDbExecutor asyncDbExecutor,
+                          CollectionVersions collectionVersions) {
         this.userService = userService;
-        this.statusService = statusService;
+        this.asyncDbExecutor = asyncDbExecutor;
+        this.collectionVersions = collectionVersions;
     }
 
     /**create post.*/
@@ -46,22 +55,28 @@ public class UserController {
     public ResponseEntity<?> createUser(
             @Parameter(description = "Данные пользователя", required = true)
             @RequestBody User user) {
-        if (!statusService.isServerAvailable()) {
-            return ResponseEntity.status(503).body("Сервис временно недоступен. Пожалуйста, попробуйте позже.");
-        }
         return ResponseEntity.ok(userService.createUser(user));
     }
 
     /**get users.*/
-    @Operation(summary = "Получить всех пользователей", description = "Возвращает список всех пользователей")
+    @Operation(summary = "Получить всех пользователей",
+            description = "Возвращает список всех пользователей, с after или limit - страницу и курсор следующей")
     @ApiResponse(responseCode = "200", description = "Список пользователей",
             content = @Content(schema = @Schema(implementation = User.class)))
     @GetMapping
-    public ResponseEntity<?> getAllUsers() {
-        if (!statusService.isServerAvailable()) {
-            return ResponseEntity.status(503).body("Сервис временно недоступен. Пожалуйста, попробуйте позже.");
+    public ResponseEntity<?> getAllUsers(
+            @Parameter(description = "ID последнего пользователя предыдущей страницы")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Размер страницы")
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(collectionVersions.usersETag())) {
+            return null;
+        }
+        if (after == null && limit == null) {
+            return ResponseEntity.ok(userService.getAllUsers());
         }
-        return ResponseEntity.ok(userService.getAllUsers());
+        return ResponseEntity.ok(userService.getUsersPage(after, limit != null ? limit : DEFAULT_PAGE_SIZE));
     }
 
     /**get user by id.*/
@@ -76,11 +91,8 @@ public class UserController {
     public ResponseEntity<?> getUserById(
             @Parameter(description = "ID пользователя", required = true)
             @PathVariable Long id) {
-        if (!statusService.isServerAvailable()) {
-            return ResponseEntity.status(503).body("Сервис временно недоступен. Пожалуйста, попробуйте позже.");
-        }
-        Optional<User> user = userService.getUserById(id);
-        return user.map(ResponseEntity::ok)
+        return userService.getUserJson(id)
+                .<ResponseEntity<?>>map(json -> ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -98,9 +110,6 @@ public class UserController {
             @PathVariable Long id,
             @Parameter(description = "Обновленные данные пользователя", required = true)
             @RequestBody User userDetails) {
-        if (!statusService.isServerAvailable()) {
-            return ResponseEntity.status(503).body("Сервис временно недоступен. Пожалуйста, попробуйте позже.");
-        }
         return ResponseEntity.ok(userService.updateUser(id, userDetails));
     }
 
@@ -131,10 +140,68 @@ public class UserController {
     public ResponseEntity<?> deleteUser(
             @Parameter(description = "ID пользователя", required = true)
             @PathVariable Long id) {
-        if (!statusService.isServerAvailable()) {
-            return ResponseEntity.status(503).body("Сервис временно недоступен. Пожалуйста, попробуйте позже.");
-        }
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    /**get users without holding the request thread.*/
+    @Operation(summary = "Получить всех пользователей асинхронно",
+            description = "То же, что GET /users, но запрос к базе выполняется в отдельном ограниченном пуле")
+    @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Список пользователей или страница",
+                    content = @Content(schema = @Schema(implementation = User.class))),
+      @ApiResponse(responseCode = "503", description = "Сервис недоступен, пул перегружен или истек таймаут")
+    })
+    @GetMapping("/async")
+    public CompletableFuture<ResponseEntity<?>> getAllUsersAsync(
+            @Parameter(description = "ID последнего пользователя предыдущей страницы")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Размер страницы")
+            @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return asyncDbExecutor.submit(() -> ResponseEntity.ok(userService.getAllUsers()));
+        }
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        return asyncDbExecutor.submit(() -> ResponseEntity.ok(userService.getUsersPage(after, pageSize)));
+    }
+
+    /**get user by id without holding the request thread.*/
+    @Operation(summary = "Получить пользователя по ID асинхронно",
+            description = "Попадание в кэш отвечает сразу, промах уходит в отдельный ограниченный пул")
+    @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Пользователь найден",
+                    content = @Content(schema = @Schema(implementation = User.class))),
+      @ApiResponse(responseCode = "404", description = "Пользователь не найден"),
+      @ApiResponse(responseCode = "503", description = "Сервис недоступен, пул перегружен или истек таймаут")
+    })
+    @GetMapping("/async/{id}")
+    public CompletableFuture<ResponseEntity<?>> getUserByIdAsync(
+            @Parameter(description = "ID пользователя", required = true)
+            @PathVariable Long id) {
+        Optional<User> cached = userService.getCachedUser(id);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(ResponseEntity.ok(cached.get()));
+        }
+        return asyncDbExecutor.submit(() -> userService.getUserById(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+
+    /**get user by username without holding the request thread.*/
+    @Operation(summary = "Получить пользователя по username асинхронно",
+            description = "То же, что GET /users/username/{username}, но в отдельном ограниченном пуле")
+    @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Пользователь найден",
+                    content = @Content(schema = @Schema(implementation = User.class))),
+      @ApiResponse(responseCode = "404", description = "Пользователь не найден"),
+      @ApiResponse(responseCode = "503", description = "Сервис недоступен, пул перегружен или истек таймаут")
+    })
+    @GetMapping("/async/username/{username}")
+    public CompletableFuture<ResponseEntity<?>> getUserByUsernameAsync(
+            @Parameter(description = "Имя пользователя", required = true)
+            @PathVariable String username) {
+        return asyncDbExecutor.submit(() -> userService.getUserByUsername(username)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+}
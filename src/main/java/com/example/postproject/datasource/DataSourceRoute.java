@@ -0,0 +1,62 @@
+package com.example.postproject.datasource;
+
+import java.util.function.Supplier;
+
+/**per-thread routing state read by RoutingDataSource when a connection is taken:
+ * whether the running code is a replica read, and whether the client wrote recently
+ * and has to read its own writes from the primary.*/
+public final class DataSourceRoute {
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> STICKY = new ThreadLocal<>();
+
+    private DataSourceRoute() {
+    }
+
+    /**true if a connection taken now may come from a replica.*/
+    static boolean replicaAllowed() {
+        return REPLICA_READ.get() != null && STICKY.get() == null;
+    }
+
+    static boolean inReplicaRead() {
+        return REPLICA_READ.get() != null;
+    }
+
+    static void enterReplicaRead() {
+        REPLICA_READ.set(Boolean.TRUE);
+    }
+
+    static void exitReplicaRead() {
+        REPLICA_READ.remove();
+    }
+
+    static boolean isSticky() {
+        return STICKY.get() != null;
+    }
+
+    static void stickToPrimary() {
+        STICKY.set(Boolean.TRUE);
+    }
+
+    static void unstick() {
+        STICKY.remove();
+    }
+
+    /**work for another thread that keeps the caller's stickiness, so a client's own writes
+     * stay visible when its read is handed to a pool.*/
+    public static <T> Supplier<T> propagate(Supplier<T> work) {
+        if (!isSticky()) {
+            return work;
+        }
+        return () -> {
+            if (isSticky()) {
+                return work.get();
+            }
+            stickToPrimary();
+            try {
+                return work.get();
+            } finally {
+                unstick();
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.postproject.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+/**routing is on once datasource.replicas[0].url is set. The primary keeps spring.datasource.*;
+ * each replica takes url, and optionally username and password, from datasource.replicas[i].*/
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas[0].url")
+public class DataSourceRoutingConfig {
+
+    /**replaces the auto-configured pool, which backs off when a DataSource bean exists.*/
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource primary = primaryPool(properties);
+        List<DataSource> replicas = new ArrayList<>();
+        List<DataSourceProperties> replicaProperties = Binder.get(environment)
+                .bind("datasource.replicas", Bindable.listOf(DataSourceProperties.class))
+                .orElse(List.of());
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            DataSourceProperties replica = replicaProperties.get(i);
+            if (replica.getUsername() == null) {
+                replica.setUsername(properties.getUsername());
+                replica.setPassword(properties.getPassword());
+            }
+            HikariDataSource pool = replica.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            pool.setPoolName("replica-" + i);
+            // a write routed here by mistake fails instead of diverging from the primary
+            pool.setReadOnly(true);
+            replicas.add(pool);
+        }
+        return new RoutingDataSource(primary, replicas);
+    }
+
+    /**spring.datasource.hikari.* still applies to the primary pool.*/
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryPool(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("primary");
+        return pool;
+    }
+
+    @Bean
+    FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${datasource.routing.sticky-window:5s}") Duration stickyWindow) {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(stickyWindow.toMillis()));
+    }
+}
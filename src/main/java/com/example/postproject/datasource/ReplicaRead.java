@@ -0,0 +1,13 @@
+package com.example.postproject.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**the service method only reads, and what it reads is not put into a shared cache,
+ * so it may run on a replica that lags behind the primary.*/
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReplicaRead {
+}
@@ -0,0 +1,29 @@
+package com.example.postproject.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**marks the thread for the duration of a {@link ReplicaRead} method; repository
+ * transactions opened inside it take their connection from a replica.
+ * Inside a transaction that is already running nothing is marked: the transaction keeps one
+ * connection to its end, and if its first statement were a replica read, its writes would follow it there.*/
+@Aspect
+@Component
+public class ReplicaReadAspect {
+    /**nested replica reads keep the outer mark.*/
+    @Around("@annotation(com.example.postproject.datasource.ReplicaRead)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (DataSourceRoute.inReplicaRead() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        DataSourceRoute.enterReplicaRead();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DataSourceRoute.exitReplicaRead();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.postproject.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**class of ServiceUnavailableException.*/
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+    /**constructor.*/
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
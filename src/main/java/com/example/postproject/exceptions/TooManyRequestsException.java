@@ -0,0 +1,21 @@
+package com.example.postproject.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**class of TooManyRequestsException.*/
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    /**constructor.*/
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**whole seconds the client should wait, for the Retry-After header.*/
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
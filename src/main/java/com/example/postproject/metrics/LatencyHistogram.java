@@ -0,0 +1,134 @@
+package com.example.postproject.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**fixed-memory latency histogram over rolling windows.
+ * Buckets are log-linear like HdrHistogram: 16 per power of two of microseconds,
+ * so a reported percentile is within ~6% of the real value. Time is split into
+ * 15-second slots in a ring that covers five minutes; recording is a single
+ * atomic increment into the current slot.*/
+public class LatencyHistogram {
+    /**slot length, the resolution of the rolling windows.*/
+    static final long SLOT_MILLIS = 15_000;
+    private static final int SLOTS = 21;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS / 2;
+    /**about 19 hours in microseconds; slower calls are clamped.*/
+    private static final int MAX_EXPONENT = 36;
+    private static final long MAX_MICROS = (1L << (MAX_EXPONENT + 1)) - 1;
+    static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * HALF;
+
+    private final Slot[] slots = new Slot[SLOTS];
+
+    /**empty histogram.*/
+    public LatencyHistogram() {
+        for (int i = 0; i < SLOTS; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    /**record one call.*/
+    public void record(long nanos) {
+        record(nanos, System.currentTimeMillis());
+    }
+
+    void record(long nanos, long nowMillis) {
+        long micros = Math.min(MAX_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        long epoch = nowMillis / SLOT_MILLIS;
+        Slot slot = slots[(int) (epoch % SLOTS)];
+        long slotEpoch = slot.epoch.get();
+        if (slotEpoch < epoch && slot.epoch.compareAndSet(slotEpoch, epoch)) {
+            // samples racing with the reset of a recycled slot can be lost, the window stays lock-free
+            for (int i = 0; i < BUCKETS; i++) {
+                slot.counts.set(i, 0);
+            }
+            slot.max.set(0);
+        }
+        slot.counts.incrementAndGet(bucketOf(micros));
+        slot.max.accumulateAndGet(micros, Math::max);
+    }
+
+    /**count, p50/p90/p99/p999 and max in milliseconds over the last {@code seconds}.*/
+    public Map<String, Number> summary(int seconds) {
+        return summary(seconds, System.currentTimeMillis());
+    }
+
+    Map<String, Number> summary(int seconds, long nowMillis) {
+        long current = nowMillis / SLOT_MILLIS;
+        long oldest = current - Math.max(1, seconds * 1000L / SLOT_MILLIS) + 1;
+        if (current - oldest >= SLOTS) {
+            throw new IllegalArgumentException("window is longer than the histogram keeps");
+        }
+        long[] merged = new long[BUCKETS];
+        long total = 0;
+        long max = 0;
+        for (Slot slot : slots) {
+            long epoch = slot.epoch.get();
+            if (epoch < oldest || epoch > current) {
+                continue;
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                long count = slot.counts.get(i);
+                merged[i] += count;
+                total += count;
+            }
+            max = Math.max(max, slot.max.get());
+        }
+        Map<String, Number> summary = new LinkedHashMap<>();
+        summary.put("count", total);
+        summary.put("p50", millis(Math.min(max, percentile(merged, total, 0.50))));
+        summary.put("p90", millis(Math.min(max, percentile(merged, total, 0.90))));
+        summary.put("p99", millis(Math.min(max, percentile(merged, total, 0.99))));
+        summary.put("p999", millis(Math.min(max, percentile(merged, total, 0.999))));
+        summary.put("max", millis(max));
+        return summary;
+    }
+
+    private static long percentile(long[] counts, long total, double quantile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * quantile));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return highestValueOf(i);
+            }
+        }
+        return highestValueOf(counts.length - 1);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int shift = exponent - SUB_BUCKET_BITS + 1;
+        return SUB_BUCKETS + (shift - 1) * HALF + (int) (micros >>> shift) - HALF;
+    }
+
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / HALF + 1;
+        long mantissa = (bucket - SUB_BUCKETS) % HALF + HALF;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    private static final class Slot {
+        private final AtomicLong epoch = new AtomicLong(-1);
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLong max = new AtomicLong();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.postproject.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.stereotype.Component;
+
+/**latency histograms per HTTP route and per service method.*/
+@Component
+public class LatencyRegistry {
+    private final ConcurrentMap<String, LatencyHistogram> routes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> methods = new ConcurrentHashMap<>();
+
+    /**record a request, route as "GET /posts/{id}".*/
+    public void recordRoute(String route, long nanos) {
+        histogram(routes, route).record(nanos);
+    }
+
+    /**record a service call, method as "PostService.getAllPosts".*/
+    public void recordMethod(String method, long nanos) {
+        histogram(methods, method).record(nanos);
+    }
+
+    /**1m and 5m summaries of every route and service method.*/
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("routes", summaries(routes));
+        snapshot.put("services", summaries(methods));
+        return snapshot;
+    }
+
+    private static LatencyHistogram histogram(ConcurrentMap<String, LatencyHistogram> histograms, String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        return histogram != null ? histogram : histograms.computeIfAbsent(name, k -> new LatencyHistogram());
+    }
+
+    private static Map<String, Map<String, Map<String, Number>>> summaries(Map<String, LatencyHistogram> histograms) {
+        Map<String, Map<String, Map<String, Number>>> summaries = new TreeMap<>();
+        histograms.forEach((name, histogram) -> {
+            Map<String, Map<String, Number>> windows = new LinkedHashMap<>();
+            windows.put("1m", histogram.summary(60));
+            windows.put("5m", histogram.summary(300));
+            summaries.put(name, windows);
+        });
+        return summaries;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.postproject.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**times every public method of the post and user services.*/
+@Aspect
+@Component
+public class ServiceLatencyAspect {
+    private final LatencyRegistry latencyRegistry;
+
+    @SuppressWarnings({"checkstyle:MissingJavadocMethod"})
+    public ServiceLatencyAspect(LatencyRegistry latencyRegistry) {
+        this.latencyRegistry = latencyRegistry;
+    }
+
+    /**record the call, failed ones included.*/
+    @Around("execution(public * com.example.postproject.services.PostService.*(..))"
+            + " || execution(public * com.example.postproject.services.UserService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            latencyRegistry.recordMethod(joinPoint.getSignature().getDeclaringType().getSimpleName()
+                    + "." + joinPoint.getSignature().getName(), System.nanoTime() - start);
+        }
+    }
+}
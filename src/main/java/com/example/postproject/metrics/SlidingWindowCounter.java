@@ -0,0 +1,65 @@
+package com.example.postproject.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**lock-free event counter over the last five minutes, one bucket per second.
+ * Each bucket packs its second and its count into one long, so a bucket is
+ * claimed for a new second and counted with the same CAS.*/
+public class SlidingWindowCounter {
+    /**widest window that can be asked for, in seconds.*/
+    public static final int WINDOW_SECONDS = 300;
+    /**one extra bucket keeps the oldest second readable while the current one fills.*/
+    private static final int BUCKETS = WINDOW_SECONDS + 1;
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    /**count one event now.*/
+    public void increment() {
+        increment(currentSecond());
+    }
+
+    void increment(long second) {
+        int index = (int) (second % BUCKETS);
+        while (true) {
+            long current = buckets.get(index);
+            long next;
+            if (current >>> COUNT_BITS == second) {
+                if ((current & COUNT_MASK) == COUNT_MASK) {
+                    return;
+                }
+                next = current + 1;
+            } else {
+                next = second << COUNT_BITS | 1;
+            }
+            if (buckets.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**events per second over the last {@code seconds} completed seconds.*/
+    public double rate(int seconds) {
+        return rate(seconds, currentSecond());
+    }
+
+    double rate(int seconds, long now) {
+        if (seconds <= 0 || seconds > WINDOW_SECONDS) {
+            throw new IllegalArgumentException("window must be 1.." + WINDOW_SECONDS + " seconds");
+        }
+        long total = 0;
+        for (long second = now - seconds; second < now; second++) {
+            long bucket = buckets.get((int) (second % BUCKETS));
+            if (bucket >>> COUNT_BITS == second) {
+                total += bucket & COUNT_MASK;
+            }
+        }
+        return (double) total / seconds;
+    }
+
+    static long currentSecond() {
+        return TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+    }
+}
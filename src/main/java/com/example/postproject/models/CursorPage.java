@@ -0,0 +1,19 @@
+package com.example.postproject.models;
+
+import java.util.List;
+import lombok.Getter;
+
+/**one page of a keyset listing.
+ * nextCursor is what to pass back for the next page, null on the last page: the last id as ?after=
+ * for listings by id, a {@link TimelineCursor} token as ?before= for user timelines.*/
+@Getter
+public class CursorPage<T, C> {
+    private final List<T> items;
+    private final C nextCursor;
+
+    /**page with its continuation cursor.*/
+    public CursorPage(List<T> items, C nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.postproject.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+
+/**result of a streaming import.*/
+@Getter
+public class ImportSummary {
+    /**only the first errors are kept, the rest are just counted.*/
+    private static final int MAX_ERRORS = 100;
+
+    private long accepted;
+    private long rejected;
+    private final List<String> errors = new ArrayList<>();
+    /**where the body stopped being valid JSON; nothing after it was read. Null if the whole body parsed.*/
+    private String parseError;
+
+    /**count stored posts.*/
+    public void accept(long count) {
+        accepted += count;
+    }
+
+    /**count posts that were not stored, with the reason.*/
+    public void reject(long count, String error) {
+        rejected += count;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    /**the body is malformed from here on, records after it are neither stored nor counted.*/
+    public void stopAt(String error) {
+        parseError = error;
+    }
+}
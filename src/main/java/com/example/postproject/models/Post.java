@@ -1,26 +1,38 @@
 package com.example.postproject.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 
 /**annotations.*/
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+    @Index(name = "posts_user_date_idx", columnList = "user_id, publishing_date, id")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "posts")
 @Getter
 @Setter
 public class Post {
+    /**pooled sequence: ids are handed out 50 at a time, which lets Hibernate batch inserts.*/
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posts_seq")
+    @SequenceGenerator(name = "posts_seq", sequenceName = "posts_seq", allocationSize = 50)
     private Long id;
 
 
@@ -37,5 +49,13 @@ public class Post {
     @Column(nullable = false)
     private LocalDateTime publishingDate = LocalDateTime.now();
 
+    /**bumped by every update; a restored cache snapshot entry is served only while it still matches.
+     * Rows created before the column existed start at 0.*/
+    @Version
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
 
 }
\ No newline at end of file
@@ -1,19 +1,45 @@
 package com.example.postproject.models;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**class of ServerStatus.*/
 public class ServerStatus {
-    private boolean available;
+    /**what the availability gate lets through.*/
+    public enum State {
+        /**everything.*/
+        AVAILABLE,
+        /**reads only; writes already admitted finish, new ones get 503.*/
+        DRAINING,
+        /**nothing.*/
+        UNAVAILABLE
+    }
+
+    private volatile State state;
+    private final AtomicInteger writesInFlight = new AtomicInteger();
 
     /**constructor of ServerStatus.*/
     public ServerStatus() {
-        this.available = true;
+        this.state = State.AVAILABLE;
     }
 
     public boolean isAvailable() {
-        return available;
+        return state == State.AVAILABLE;
     }
 
     public void setAvailable(boolean available) {
-        this.available = available;
+        this.state = available ? State.AVAILABLE : State.UNAVAILABLE;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    /**write requests admitted and not finished yet; draining is done when it reaches zero.*/
+    public AtomicInteger getWritesInFlight() {
+        return writesInFlight;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package com.example.postproject.models;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**position in a user timeline: the keyset (publishingDate, id) of the last post of a page.
+ * Carries the values themselves, so paging goes on if that post is deleted meanwhile.
+ * Clients see it as an opaque token.*/
+public record TimelineCursor(LocalDateTime publishingDate, long id) {
+    private static final char SEPARATOR = '_';
+
+    /**cursor right after {@code post}.*/
+    public static TimelineCursor after(Post post) {
+        return new TimelineCursor(post.getPublishingDate(), post.getId());
+    }
+
+    /**URL-safe token.*/
+    public String encode() {
+        String plain = publishingDate + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**cursor of a token made by {@link #encode()}; IllegalArgumentException for anything else.*/
+    public static TimelineCursor decode(String token) {
+        try {
+            String plain = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = plain.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            long id = Long.parseLong(plain.substring(separator + 1));
+            if (id <= 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new TimelineCursor(LocalDateTime.parse(plain.substring(0, separator)), id);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -7,20 +7,30 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 /**annotations.*/
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "users_username_idx", columnList = "username"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "user-usernames")
 @Getter
 @Setter
 public class User {
+    /**pooled sequence: ids are handed out 50 at a time, which lets Hibernate batch inserts.*/
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -29,6 +39,9 @@ public class User {
     @Column(nullable = false)
     private String password;
 
+    /**natural id, so a lookup by username resolves through the user-usernames region.
+     * Mutable because updateUser may rename; Hibernate keeps that region in step on flush.*/
+    @NaturalId(mutable = true)
     @Column(nullable = false)
     private String username;
 
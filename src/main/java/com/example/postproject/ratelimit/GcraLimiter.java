@@ -0,0 +1,81 @@
+package com.example.postproject.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**token bucket per key in the GCRA form: a key keeps only its theoretical arrival time (TAT),
+ * updated with one compare-and-set, so there is no lock and no refill timer. A request is let
+ * through while TAT - now fits in the burst tolerance, and then moves TAT one interval ahead.*/
+public class GcraLimiter {
+    /**how many acquisitions pass between sweeps of idle keys.*/
+    private static final int SWEEP_EVERY = 4096;
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+    private final AtomicLong acquisitions = new AtomicLong();
+
+    @SuppressWarnings({"checkstyle:MissingJavadocMethod"})
+    public GcraLimiter(double perSecond, int burst) {
+        this(perSecond, burst, System::nanoTime);
+    }
+
+    GcraLimiter(double perSecond, int burst, LongSupplier clock) {
+        if (perSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / perSecond);
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.clock = clock;
+    }
+
+    /**0 if a request for the key may pass now, otherwise nanos until it may.*/
+    public long acquire(String key) {
+        long now = clock.getAsLong();
+        if (acquisitions.incrementAndGet() % SWEEP_EVERY == 0) {
+            sweep(now);
+        }
+        AtomicLong arrival = arrivals.computeIfAbsent(key, k -> new AtomicLong(now));
+        while (true) {
+            long tat = arrival.get();
+            long start = Math.max(tat, now);
+            if (start - now > toleranceNanos) {
+                return start - now - toleranceNanos;
+            }
+            if (arrival.compareAndSet(tat, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**what acquire would return now, without spending anything.*/
+    public long peek(String key) {
+        AtomicLong arrival = arrivals.get(key);
+        if (arrival == null) {
+            return 0;
+        }
+        long now = clock.getAsLong();
+        return Math.max(0, Math.max(arrival.get(), now) - now - toleranceNanos);
+    }
+
+    /**gives back one request acquired for the key, e.g. when another limit rejected it afterwards.*/
+    public void refund(String key) {
+        AtomicLong arrival = arrivals.get(key);
+        if (arrival != null) {
+            arrival.addAndGet(-intervalNanos);
+        }
+    }
+
+    /**keys tracked right now.*/
+    public int size() {
+        return arrivals.size();
+    }
+
+    /**a key whose TAT has passed is as good as new; dropping it bounds the map by active clients.
+     * A request racing the removal may get one extra token, which is harmless.*/
+    private void sweep(long now) {
+        arrivals.values().removeIf(arrival -> arrival.get() <= now);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.postproject.ratelimit;
+
+import com.example.postproject.exceptions.TooManyRequestsException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**per-client rate limit: every client has a general budget (rate-limit.per-second, rate-limit.burst)
+ * and expensive routes add their own (rate-limit.routes[i]). It runs after handler mapping, which
+ * gives the route template, and before the request body is read, so a rejected bulk upload is not parsed.
+ * A client is its X-API-Key if that key is listed in rate-limit.api-keys, its address otherwise;
+ * unlisted keys are ignored, or rotating them would buy a fresh budget each time.*/
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+    static final String API_KEY_HEADER = "X-API-Key";
+
+    private final boolean enabled;
+    private final GcraLimiter clients;
+    private final Map<String, GcraLimiter> routes = new HashMap<>();
+    private final Set<String> apiKeys;
+
+    @Autowired
+    @SuppressWarnings({"checkstyle:MissingJavadocMethod"})
+    public RateLimitInterceptor(Environment environment,
+                                @Value("${rate-limit.enabled:true}") boolean enabled,
+                                @Value("${rate-limit.per-second:50}") double perSecond,
+                                @Value("${rate-limit.burst:100}") int burst,
+                                @Value("${rate-limit.api-keys:}") String apiKeys) {
+        this(enabled, perSecond, burst, Binder.get(environment)
+                .bind("rate-limit.routes", Bindable.listOf(RouteLimit.class))
+                .orElse(List.of()), apiKeys);
+    }
+
+    RateLimitInterceptor(boolean enabled, double perSecond, int burst, List<RouteLimit> routeLimits, String apiKeys) {
+        this(enabled, perSecond, burst, routeLimits, apiKeys, System::nanoTime);
+    }
+
+    RateLimitInterceptor(boolean enabled, double perSecond, int burst, List<RouteLimit> routeLimits, String apiKeys,
+                         LongSupplier clock) {
+        this.enabled = enabled;
+        this.clients = new GcraLimiter(perSecond, burst, clock);
+        for (RouteLimit limit : routeLimits) {
+            routes.put(limit.route(), new GcraLimiter(limit.perSecond(), limit.burst(), clock));
+        }
+        this.apiKeys = Arrays.stream(apiKeys.split(","))
+                .map(String::trim)
+                .filter(key -> !key.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled) {
+            return true;
+        }
+        String client = clientOf(request);
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+        GcraLimiter routeLimiter = routes.get(route);
+        if (routeLimiter == null) {
+            reject(clients.acquire(client), "Too many requests");
+            return true;
+        }
+        // both budgets are checked before either is spent, so a request the general limit
+        // rejects does not use up the client's budget for the route, and the other way round
+        reject(routeLimiter.peek(client), "Too many requests to " + route);
+        reject(clients.peek(client), "Too many requests");
+        reject(routeLimiter.acquire(client), "Too many requests to " + route);
+        long wait = clients.acquire(client);
+        if (wait > 0) {
+            // another request of the client took the last general token since the peek
+            routeLimiter.refund(client);
+            reject(wait, "Too many requests");
+        }
+        return true;
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        if (apiKey != null && apiKeys.contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(long waitNanos, String message) {
+        if (waitNanos > 0) {
+            long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            throw new TooManyRequestsException(message, seconds);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.postproject.ratelimit;
+
+/**budget of one route per client; route is the method and the path template, e.g. "GET /posts".*/
+public record RouteLimit(String route, double perSecond, int burst) {
+}
@@ -0,0 +1,73 @@
+package com.example.postproject.repository;
+
+import jakarta.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**moves posts_seq and users_seq past the ids already in their tables. Those tables used IDENTITY
+ * columns before, and ddl-auto=update creates the sequences starting at 1, so the first pooled
+ * block would collide with existing rows. A sequence that is already ahead is never moved back:
+ * another instance may hold a block above max(id).*/
+@Component
+@DependsOn("entityManagerFactory")
+public class IdSequenceAligner {
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceAligner.class);
+    /**allocationSize of the @SequenceGenerator on Post and User; Hibernate creates the sequences
+     * with this increment and takes the ids (value - ALLOCATION_SIZE, value] from each value.*/
+    static final long ALLOCATION_SIZE = 50;
+    private static final Map<String, String> SEQUENCES = new LinkedHashMap<>();
+
+    static {
+        SEQUENCES.put("users", "users_seq");
+        SEQUENCES.put("posts", "posts_seq");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @SuppressWarnings({"checkstyle:MissingJavadocMethod"})
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**runs after Hibernate has updated the schema and before the first request can insert.*/
+    @PostConstruct
+    void alignSequences() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(product) && !"H2".equals(product)) {
+            logger.warn("Id sequences are not checked on {}", product);
+            return;
+        }
+        SEQUENCES.forEach((table, sequence) -> align(product, table, sequence));
+    }
+
+    private void align(String product, String table, String sequence) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+        long next = nextValue(product, sequence);
+        if (next - ALLOCATION_SIZE >= maxId) {
+            return;
+        }
+        long restart = maxId + ALLOCATION_SIZE;
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + restart);
+        logger.warn("Moved {} from {} to {}, past max(id) {} of {}", sequence, next, restart, maxId, table);
+    }
+
+    /**value the sequence hands out next, without consuming it.*/
+    long nextValue(String product, String sequence) {
+        if ("PostgreSQL".equals(product)) {
+            return jdbcTemplate.queryForObject("SELECT CASE WHEN is_called THEN last_value + " + ALLOCATION_SIZE
+                    + " ELSE last_value END FROM " + sequence, Long.class);
+        }
+        return jdbcTemplate.queryForObject("SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES"
+                + " WHERE SEQUENCE_NAME = ?", Long.class, sequence.toUpperCase());
+    }
+}
@@ -1,9 +1,17 @@
 package com.example.postproject.repository;
 
 import com.example.postproject.models.Post;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 
@@ -11,8 +19,102 @@ import org.springframework.data.repository.query.Param;
 public interface PostRepository extends JpaRepository<Post, Long> {
 
 
-    /**JPQL-query by username.*/
-    @Query("SELECT p FROM Post p JOIN FETCH p.user u WHERE u.username = :username")
+    /**JPQL-query by username, newest first. Listings read the L2 regions but do not fill them:
+     * a scan would churn them, and on a lagging replica it would cache stale rows.*/
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET"))
+    @Query("SELECT p FROM Post p JOIN FETCH p.user u WHERE u.username = :username"
+            + " ORDER BY p.publishingDate DESC, p.id DESC")
     List<Post> findPostsByUsername(@Param("username") String username);
 
+    /**first timeline page: range scan of posts_user_date_idx from the newest post down.*/
+    @Query("SELECT p FROM Post p JOIN FETCH p.user u WHERE u.username = :username"
+            + " ORDER BY p.publishingDate DESC, p.id DESC")
+    List<Post> findTimeline(@Param("username") String username, Limit limit);
+
+    /**timeline page after the keyset ({@code date}, {@code id}) of the previous page's last post,
+     * compared by value, so equal dates are not skipped and a deleted cursor post does not end paging.
+     * Deeper pages bypass SimpleCache, so the id list goes to the query cache and the posts to the L2 region.*/
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT p FROM Post p JOIN FETCH p.user u WHERE u.username = :username"
+            + " AND (p.publishingDate < :date OR (p.publishingDate = :date AND p.id < :id))"
+            + " ORDER BY p.publishingDate DESC, p.id DESC")
+    List<Post> findTimelineBefore(@Param("username") String username, @Param("date") LocalDateTime date,
+                                  @Param("id") Long id, Limit limit);
+
+    /**every post with its author joined in, instead of one select per distinct author.*/
+    @Override
+    @EntityGraph(attributePaths = "user")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET"))
+    List<Post> findAll();
+
+    /**posts by id with their authors in the same select.*/
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<Post> findAllById(Iterable<Long> ids);
+
+    /**current version and author of the posts; a cache snapshot drops the entries that no longer match.*/
+    @Query("SELECT p.id AS id, p.version AS version, p.user.id AS userId FROM Post p WHERE p.id IN :ids")
+    List<PostVersion> findVersions(@Param("ids") Collection<Long> ids);
+
+    /**keyset page: index range scan on the primary key, cost does not grow with depth.*/
+    @EntityGraph(attributePaths = "user")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET"))
+    List<Post> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**forward-only cursor over every post; must be consumed inside a transaction and closed.
+     * Like the listings it does not fill the L2 regions: a full export would evict the hot posts and users.*/
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET")
+    })
+    @Query("SELECT p FROM Post p JOIN FETCH p.user ORDER BY p.id")
+    Stream<Post> streamAll();
+
+    /**id, title and text of every post, without the user; feeds the search index.*/
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p.id AS id, p.title AS title, p.text AS text FROM Post p")
+    Stream<PostText> streamTexts();
+
+    /**ranked full-text page, every word must match; needs the posts.search_vector column (Postgres).*/
+    @Query(value = "SELECT p.id AS id, CAST(ts_rank_cd(p.search_vector, q) AS double precision) AS score"
+            + " FROM posts p, plainto_tsquery(CAST(:config AS regconfig), :query) q"
+            + " WHERE p.search_vector @@ q ORDER BY score DESC, p.id DESC LIMIT :limit OFFSET :offset",
+            nativeQuery = true)
+    List<SearchRow> searchAllWords(@Param("config") String config, @Param("query") String query,
+                                   @Param("offset") int offset, @Param("limit") int limit);
+
+    /**ranked full-text page, any word may match; {@code query} is words joined by " | ".*/
+    @Query(value = "SELECT p.id AS id, CAST(ts_rank_cd(p.search_vector, q) AS double precision) AS score"
+            + " FROM posts p, to_tsquery(CAST(:config AS regconfig), :query) q"
+            + " WHERE p.search_vector @@ q ORDER BY score DESC, p.id DESC LIMIT :limit OFFSET :offset",
+            nativeQuery = true)
+    List<SearchRow> searchAnyWord(@Param("config") String config, @Param("query") String query,
+                                  @Param("offset") int offset, @Param("limit") int limit);
+
+    /**id and rank of a full-text match.*/
+    interface SearchRow {
+        Long getId();
+
+        Double getScore();
+    }
+
+    /**version of a post and its author's id.*/
+    interface PostVersion {
+        Long getId();
+
+        Long getVersion();
+
+        Long getUserId();
+    }
+
+    /**searchable part of a post.*/
+    interface PostText {
+        Long getId();
+
+        String getTitle();
+
+        String getText();
+    }
+
 }
\ No newline at end of file
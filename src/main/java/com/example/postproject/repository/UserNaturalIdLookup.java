@@ -0,0 +1,10 @@
+package com.example.postproject.repository;
+
+import com.example.postproject.models.User;
+import java.util.Optional;
+
+/**lookups by the natural id of User, served from the second-level cache when possible.*/
+public interface UserNaturalIdLookup {
+    /**Find user by username.*/
+    Optional<User> findByUsername(String username);
+}
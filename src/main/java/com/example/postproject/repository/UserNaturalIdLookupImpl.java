@@ -0,0 +1,23 @@
+package com.example.postproject.repository;
+
+import com.example.postproject.models.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Optional;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+/**resolves username to id through the user-usernames region, then the user through the users
+ * region; a JPQL query would skip both and always hit the database.*/
+class UserNaturalIdLookupImpl implements UserNaturalIdLookup {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+}
@@ -1,15 +1,18 @@
 package com.example.postproject.repository;
 
 import com.example.postproject.models.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.QueryHints;
 
-import java.util.Optional;
+import java.util.List;
 
 /**interface of UserRepository.*/
-public interface UserRepository extends JpaRepository<User, Long> {
-    /**Find user by username.*/
-    @Query("SELECT u FROM User u WHERE u.username = :username")
-    Optional<User> findByUsername(@Param("username") String username);
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdLookup {
+    /**keyset page: index range scan on the primary key, cost does not grow with depth.
+     * Like the post listings it leaves the L2 regions as they are.*/
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET"))
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
\ No newline at end of file
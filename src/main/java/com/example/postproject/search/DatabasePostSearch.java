@@ -0,0 +1,103 @@
+package com.example.postproject.search;
+
+import com.example.postproject.models.Post;
+import com.example.postproject.repository.PostRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**search inside the database, so it scales past one node's heap and sees every committed post.
+ * On Postgres posts get a generated, weighted tsvector column with a GIN index, queried with
+ * plainto_tsquery and ranked by ts_rank_cd. Other databases (H2 in tests) fall back to an
+ * unranked LIKE scan, newest posts first. Changing search.postgres.config requires dropping
+ * posts.search_vector so it is regenerated.*/
+@Component
+@ConditionalOnProperty(name = "search.backend", havingValue = "postgres")
+public class DatabasePostSearch implements PostSearch {
+    private static final Logger logger = LoggerFactory.getLogger(DatabasePostSearch.class);
+    /**goes into DDL as a literal, so only plain names are accepted.*/
+    private static final Pattern CONFIG_NAME = Pattern.compile("[a-z_]+");
+
+    private final PostRepository postRepository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final String config;
+    private boolean fullText;
+
+    @SuppressWarnings({"checkstyle:MissingJavadocMethod"})
+    public DatabasePostSearch(PostRepository postRepository, EntityManager entityManager, JdbcTemplate jdbcTemplate,
+                              @Value("${search.postgres.config:simple}") String config) {
+        if (!CONFIG_NAME.matcher(config).matches()) {
+            throw new IllegalArgumentException("search.postgres.config must be a text search configuration name");
+        }
+        this.postRepository = postRepository;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = config;
+    }
+
+    /**runs after Hibernate has created the posts table.*/
+    @PostConstruct
+    void prepareSchema() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        fullText = "PostgreSQL".equals(product);
+        if (!fullText) {
+            logger.warn("Full-text search needs PostgreSQL, {} falls back to LIKE", product);
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE posts ADD COLUMN IF NOT EXISTS search_vector tsvector"
+                + " GENERATED ALWAYS AS (setweight(to_tsvector('" + config + "', coalesce(title, '')), 'A')"
+                + " || setweight(to_tsvector('" + config + "', coalesce(text, '')), 'B')) STORED");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS posts_search_vector_idx ON posts USING GIN (search_vector)");
+        logger.info("Full-text search on posts.search_vector ({})", config);
+    }
+
+    @Override
+    public List<SearchHit> search(String query, SearchMode mode, int offset, int limit) {
+        List<String> words = PostSearchIndex.tokenize(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        if (!fullText) {
+            return searchLike(words, mode, offset, limit);
+        }
+        List<PostRepository.SearchRow> rows = mode == SearchMode.AND
+                ? postRepository.searchAllWords(config, query, offset, limit)
+                : postRepository.searchAnyWord(config, String.join(" | ", words), offset, limit);
+        return rows.stream().map(row -> new SearchHit(row.getId(), row.getScore())).toList();
+    }
+
+    /**words are letters and digits only, so they need no LIKE escaping.*/
+    private List<SearchHit> searchLike(List<String> words, SearchMode mode, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Post> post = query.from(Post.class);
+        Predicate[] matches = new Predicate[words.size()];
+        for (int i = 0; i < matches.length; i++) {
+            String pattern = "%" + words.get(i) + "%";
+            matches[i] = cb.or(cb.like(cb.lower(post.get("title")), pattern), cb.like(cb.lower(post.get("text")), pattern));
+        }
+        query.select(post.get("id"))
+                .where(mode == SearchMode.AND ? cb.and(matches) : cb.or(matches))
+                .orderBy(cb.desc(post.get("id")));
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList().stream()
+                .map(id -> new SearchHit(id, 0))
+                .toList();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.postproject.search;
+
+import com.example.postproject.models.Post;
+import java.util.Collection;
+import java.util.List;
+
+/**full-text search over posts, picked by search.backend (memory or postgres).*/
+public interface PostSearch {
+    /**page of matching post ids, most relevant first.*/
+    List<SearchHit> search(String query, SearchMode mode, int offset, int limit);
+
+    /**the post was saved; backends that query the database directly ignore it.*/
+    default void index(Post post) {
+    }
+
+    /**several posts were saved.*/
+    default void indexAll(Collection<Post> posts) {
+    }
+
+    /**the post was deleted.*/
+    default void remove(Long id) {
+    }
+}
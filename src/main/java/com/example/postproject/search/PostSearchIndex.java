@@ -0,0 +1,411 @@
+package com.example.postproject.search;
+
+import com.example.postproject.models.Post;
+import com.example.postproject.repository.PostRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**in-memory inverted index over post titles and texts.
+ * Every word maps to a posting list: ascending post ids with term frequencies and
+ * document lengths in parallel primitive arrays. AND walks the shortest list and gallops
+ * through the others, OR merges all lists in one pass. Hits are scored with BM25 and a
+ * bounded heap keeps only the best k, so a query never touches the database.*/
+@Component
+@ConditionalOnProperty(name = "search.backend", havingValue = "memory", matchIfMissing = true)
+public class PostSearchIndex implements PostSearch {
+    private static final Logger logger = LoggerFactory.getLogger(PostSearchIndex.class);
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    /**a word of the title counts as this many occurrences.*/
+    private static final int TITLE_WEIGHT = 2;
+
+    private final PostRepository postRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    /**words of every indexed post, needed to take it out of its posting lists.*/
+    private final Map<Long, String[]> documents = new HashMap<>();
+    private long totalLength;
+
+    @SuppressWarnings({"checkstyle:MissingJavadocMethod"})
+    public PostSearchIndex(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    /**load every post once the application is up.*/
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+            try (Stream<PostRepository.PostText> posts = postRepository.streamTexts()) {
+                posts.forEach(post -> add(post.getId(), post.getTitle(), post.getText()));
+            }
+            logger.info("Search index built: {} posts, {} words in {} ms",
+                    documents.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**add the post or replace its previous version.*/
+    @Override
+    public void index(Post post) {
+        lock.writeLock().lock();
+        try {
+            remove(post.getId());
+            add(post.getId(), post.getTitle(), post.getText());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**add or replace several posts under one lock.*/
+    @Override
+    public void indexAll(Collection<Post> posts) {
+        lock.writeLock().lock();
+        try {
+            for (Post post : posts) {
+                remove(post.getId());
+                add(post.getId(), post.getTitle(), post.getText());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**drop the post from every posting list.*/
+    @Override
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            String[] words = documents.remove(id);
+            if (words == null) {
+                return;
+            }
+            int length = 0;
+            for (String word : words) {
+                Postings list = postings.get(word);
+                length = list.remove(id);
+                if (list.size == 0) {
+                    postings.remove(word);
+                }
+            }
+            totalLength -= length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**indexed posts.*/
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**hits {@code offset} to {@code offset + limit} for the query, most relevant first.
+     * The heap keeps offset + limit hits, so deep pages cost more.*/
+    @Override
+    public List<SearchHit> search(String query, SearchMode mode, int offset, int limit) {
+        List<SearchHit> top = search(query, mode, offset + limit);
+        return offset >= top.size() ? List.of() : top.subList(offset, top.size());
+    }
+
+    /**best {@code limit} posts for the query, most relevant first.*/
+    public List<SearchHit> search(String query, SearchMode mode, int limit) {
+        Set<String> words = new LinkedHashSet<>(tokenize(query));
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>(words.size());
+            for (String word : words) {
+                Postings list = postings.get(word);
+                if (list != null) {
+                    lists.add(list);
+                } else if (mode == SearchMode.AND) {
+                    return List.of();
+                }
+            }
+            if (lists.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documents.size();
+            TopHits top = new TopHits(limit);
+            if (mode == SearchMode.AND) {
+                intersect(lists, averageLength, top);
+            } else {
+                union(lists, averageLength, top);
+            }
+            return top.sorted();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void intersect(List<Postings> lists, double averageLength, TopHits top) {
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        Postings driver = lists.get(0);
+        int[] cursors = new int[lists.size()];
+        double[] idf = idf(lists);
+        candidates:
+        for (int i = 0; i < driver.size; i++) {
+            long id = driver.ids[i];
+            double score = idf[0] * bm25(driver.freqs[i], driver.lengths[i], averageLength);
+            for (int l = 1; l < lists.size(); l++) {
+                Postings list = lists.get(l);
+                int at = list.seek(id, cursors[l]);
+                cursors[l] = at;
+                if (at == list.size) {
+                    return;
+                }
+                if (list.ids[at] != id) {
+                    continue candidates;
+                }
+                score += idf[l] * bm25(list.freqs[at], list.lengths[at], averageLength);
+            }
+            top.offer(id, score);
+        }
+    }
+
+    private void union(List<Postings> lists, double averageLength, TopHits top) {
+        int[] cursors = new int[lists.size()];
+        double[] idf = idf(lists);
+        while (true) {
+            long id = Long.MAX_VALUE;
+            for (int l = 0; l < lists.size(); l++) {
+                Postings list = lists.get(l);
+                if (cursors[l] < list.size) {
+                    id = Math.min(id, list.ids[cursors[l]]);
+                }
+            }
+            if (id == Long.MAX_VALUE) {
+                return;
+            }
+            double score = 0;
+            for (int l = 0; l < lists.size(); l++) {
+                Postings list = lists.get(l);
+                int at = cursors[l];
+                if (at < list.size && list.ids[at] == id) {
+                    score += idf[l] * bm25(list.freqs[at], list.lengths[at], averageLength);
+                    cursors[l] = at + 1;
+                }
+            }
+            top.offer(id, score);
+        }
+    }
+
+    private double[] idf(List<Postings> lists) {
+        double n = documents.size();
+        double[] idf = new double[lists.size()];
+        for (int l = 0; l < idf.length; l++) {
+            int df = lists.get(l).size;
+            idf[l] = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+        }
+        return idf;
+    }
+
+    private static double bm25(int freq, int length, double averageLength) {
+        return freq * (K1 + 1) / (freq + K1 * (1 - B + B * length / averageLength));
+    }
+
+    /**caller holds the write lock.*/
+    private void add(Long id, String title, String text) {
+        Map<String, Integer> freqs = new HashMap<>();
+        int length = 0;
+        for (String word : tokenize(title)) {
+            freqs.merge(word, TITLE_WEIGHT, Integer::sum);
+            length += TITLE_WEIGHT;
+        }
+        for (String word : tokenize(text)) {
+            freqs.merge(word, 1, Integer::sum);
+            length++;
+        }
+        if (freqs.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<String, Integer> entry : freqs.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), word -> new Postings()).put(id, entry.getValue(), length);
+        }
+        documents.put(id, freqs.keySet().toArray(String[]::new));
+        totalLength += length;
+    }
+
+    /**lower-cased runs of letters and digits.*/
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**posting list of one word, sorted by post id.*/
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int[] freqs = new int[4];
+        private int[] lengths = new int[4];
+        private int size;
+
+        /**ids mostly grow, so the common case is an append.*/
+        private void put(long id, int freq, int length) {
+            int at = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0 && at < size) {
+                freqs[at] = freq;
+                lengths[at] = length;
+                return;
+            }
+            at = at < 0 ? -at - 1 : at;
+            if (size == ids.length) {
+                int capacity = size + (size >> 1) + 1;
+                ids = Arrays.copyOf(ids, capacity);
+                freqs = Arrays.copyOf(freqs, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            System.arraycopy(freqs, at, freqs, at + 1, size - at);
+            System.arraycopy(lengths, at, lengths, at + 1, size - at);
+            ids[at] = id;
+            freqs[at] = freq;
+            lengths[at] = length;
+            size++;
+        }
+
+        /**returns the document length that was stored with the id, or 0.*/
+        private int remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return 0;
+            }
+            int length = lengths[at];
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            System.arraycopy(freqs, at + 1, freqs, at, size - at - 1);
+            System.arraycopy(lengths, at + 1, lengths, at, size - at - 1);
+            size--;
+            return length;
+        }
+
+        /**first position at or after {@code from} whose id is not below {@code id}; gallops, then bisects.*/
+        private int seek(long id, int from) {
+            int step = 1;
+            int hi = from;
+            while (hi < size && ids[hi] < id) {
+                from = hi + 1;
+                hi += step;
+                step <<= 1;
+            }
+            int at = Arrays.binarySearch(ids, from, Math.min(hi + 1, size), id);
+            return at >= 0 ? at : -at - 1;
+        }
+    }
+
+    /**min-heap of the best hits seen so far, in parallel arrays.*/
+    private static final class TopHits {
+        private final long[] ids;
+        private final double[] scores;
+        private int size;
+
+        private TopHits(int capacity) {
+            this.ids = new long[capacity];
+            this.scores = new double[capacity];
+        }
+
+        private void offer(long id, double score) {
+            if (size < ids.length) {
+                ids[size] = id;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (better(id, score, 0)) {
+                ids[0] = id;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        /**ties go to the newer post.*/
+        private boolean better(long id, double score, int at) {
+            return score > scores[at] || score == scores[at] && id > ids[at];
+        }
+
+        private void siftUp(int at) {
+            while (at > 0) {
+                int parent = (at - 1) >>> 1;
+                if (!better(ids[parent], scores[parent], at)) {
+                    return;
+                }
+                swap(at, parent);
+                at = parent;
+            }
+        }
+
+        private void siftDown(int at) {
+            while (true) {
+                int smallest = at;
+                for (int child = 2 * at + 1; child <= 2 * at + 2 && child < size; child++) {
+                    if (better(ids[smallest], scores[smallest], child)) {
+                        smallest = child;
+                    }
+                }
+                if (smallest == at) {
+                    return;
+                }
+                swap(at, smallest);
+                at = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+
+        private List<SearchHit> sorted() {
+            List<SearchHit> hits = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                hits.add(new SearchHit(ids[i], scores[i]));
+            }
+            hits.sort(Comparator.comparingDouble(SearchHit::score).reversed()
+                    .thenComparing(Comparator.comparingLong(SearchHit::postId).reversed()));
+            return hits;
+        }
+    }
+}
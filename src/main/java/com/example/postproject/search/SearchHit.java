@@ -0,0 +1,5 @@
+package com.example.postproject.search;
+
+/**id of a matching post and its relevance, higher is better.*/
+public record SearchHit(long postId, double score) {
+}
@@ -0,0 +1,22 @@
+package com.example.postproject.search;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**how the words of a query combine.*/
+public enum SearchMode {
+    /**every word must occur in the post.*/
+    AND,
+    /**any word is enough, posts matching more words rank higher.*/
+    OR;
+
+    /**case-insensitive lookup, empty for an unknown name.*/
+    public static Optional<SearchMode> of(String name) {
+        for (SearchMode mode : values()) {
+            if (mode.name().equals(name.toUpperCase(Locale.ROOT))) {
+                return Optional.of(mode);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.postproject.services;
+
+import com.example.postproject.datasource.DataSourceRoute;
+import com.example.postproject.exceptions.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**bounded pool for repository work of the async endpoints.
+ * A full queue or a call slower than db.executor.timeout fails with ServiceUnavailableException (503).*/
+@Component
+public class AsyncDbExecutor {
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    @SuppressWarnings({"checkstyle:MissingJavadocMethod"})
+    public AsyncDbExecutor(@Value("${db.executor.pool-size:16}") int poolSize,
+                           @Value("${db.executor.queue-capacity:200}") int queueCapacity,
+                           @Value("${db.executor.timeout:5s}") Duration timeout,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(virtualThreads),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    private static ThreadFactory threadFactory(boolean virtualThreads) {
+        if (virtualThreads) {
+            return Thread.ofVirtual().name("db-", 0).factory();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "db-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**run the work on the pool, time it out and map saturation to 503.*/
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(DataSourceRoute.propagate(work), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                    new ServiceUnavailableException("Too many database requests in flight"));
+        }
+        return future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof TimeoutException) {
+                        throw new ServiceUnavailableException("Database request timed out");
+                    }
+                    throw ex instanceof CompletionException completion ? completion : new CompletionException(ex);
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
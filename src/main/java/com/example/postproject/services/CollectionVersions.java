@@ -0,0 +1,66 @@
+package com.example.postproject.services;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**version counters of the post and user collections, bumped after every committed write.
+ * Reads derive their ETag from them, so a conditional GET costs no query and no serialization.
+ * The tag also carries a random id of this instance: counters restart from zero, and another
+ * instance may be at the same number with different data.
+ * The counters only see writes made through this instance. To keep a client that sticks to one
+ * instance from revalidating stale data forever, the tag also carries the number of the current
+ * maxStaleness window, so every tag expires at the end of its window.*/
+@Component
+public class CollectionVersions {
+    private final String instance = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong posts = new AtomicLong();
+    private final AtomicLong users = new AtomicLong();
+    private final long windowMillis;
+    private final Clock clock;
+
+    @SuppressWarnings({"checkstyle:MissingJavadocMethod"})
+    @Autowired
+    public CollectionVersions(@Value("${etag.max-staleness:10s}") Duration maxStaleness) {
+        this(maxStaleness, Clock.systemUTC());
+    }
+
+    CollectionVersions(Duration maxStaleness, Clock clock) {
+        if (maxStaleness.toMillis() <= 0) {
+            throw new IllegalArgumentException("etag.max-staleness must be positive");
+        }
+        this.windowMillis = maxStaleness.toMillis();
+        this.clock = clock;
+    }
+
+    /**a post was created, updated or deleted.*/
+    public void postsChanged() {
+        posts.incrementAndGet();
+    }
+
+    /**a user was created, updated or deleted; posts embed their author, so they change too.*/
+    public void usersChanged() {
+        users.incrementAndGet();
+        posts.incrementAndGet();
+    }
+
+    /**tag of the current post collection; read it before reading the data it stands for.*/
+    public String postsETag() {
+        return tag("posts", posts.get());
+    }
+
+    /**tag of the current user collection.*/
+    public String usersETag() {
+        return tag("users", users.get());
+    }
+
+    /**weak, because Tomcat does not gzip a response that carries a strong ETag.*/
+    private String tag(String collection, long version) {
+        long window = clock.millis() / windowMillis;
+        return "W/\"" + collection + "-" + instance + "-" + version + "-" + Long.toString(window, 36) + "\"";
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.postproject.services;
+
+import com.example.postproject.models.Post;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**inserts many posts in one transaction as JDBC batches.*/
+@Component
+public class PostBatchWriter {
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    @SuppressWarnings({"checkstyle:MissingJavadocMethod"})
+    public PostBatchWriter(EntityManager entityManager, @Value("${posts.bulk.batch-size:50}") int batchSize) {
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    /**persist every post; each flush sends one batch and the context is cleared to keep it small.*/
+    @Transactional
+    public List<Post> insertAll(List<Post> posts) {
+        int pending = 0;
+        for (Post post : posts) {
+            entityManager.persist(post);
+            if (++pending == batchSize) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return posts;
+    }
+}
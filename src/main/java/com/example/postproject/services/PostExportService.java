@@ -0,0 +1,70 @@
+package com.example.postproject.services;
+
+import com.example.postproject.models.Post;
+import com.example.postproject.repository.PostRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**streams every post as newline-delimited JSON.*/
+@Service
+public class PostExportService {
+    private static final Logger logger = LoggerFactory.getLogger(PostExportService.class);
+    /**flush the response every this many posts; the first post is flushed on its own.*/
+    private static final int FLUSH_EVERY = 500;
+
+    private final PostRepository postRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**export service.*/
+    public PostExportService(PostRepository postRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.postRepository = postRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**write one JSON object per line; memory stays flat however large the table is.*/
+    @Transactional(readOnly = true)
+    public long exportPosts(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long exported = 0;
+        // streamAll carries a GET cache mode hint, but the scrolled results are loaded with the session's
+        // mode, so without this every exported post and author would still be put into the L2 regions
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.GET);
+        try (Stream<Post> posts = postRepository.streamAll();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            Iterator<Post> iterator = posts.iterator();
+            while (iterator.hasNext()) {
+                Post post = iterator.next();
+                writer.writeValue(generator, post);
+                generator.writeRaw('\n');
+                entityManager.detach(post);
+                entityManager.detach(post.getUser());
+                exported++;
+                if (exported == 1 || exported % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+        logger.info("Exported {} posts", exported);
+        return exported;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.postproject.services;
+
+import com.example.postproject.exceptions.BadRequestException;
+import com.example.postproject.exceptions.InternalServerErrorException;
+import com.example.postproject.models.ImportSummary;
+import com.example.postproject.models.Post;
+import com.example.postproject.models.User;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**imports posts from a JSON array or NDJSON body without reading it into memory.*/
+@Service
+public class PostImportService {
+    private static final Logger logger = LoggerFactory.getLogger(PostImportService.class);
+
+    private final PostService postService;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    @SuppressWarnings({"checkstyle:MissingJavadocMethod"})
+    public PostImportService(PostService postService, ObjectMapper objectMapper,
+                             @Value("${posts.bulk.batch-size:50}") int chunkSize) {
+        this.postService = postService;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**parse one post at a time, store valid ones chunk by chunk, count the rest.
+     * Each chunk commits on its own, so a failure only loses that chunk. Malformed JSON ends the
+     * import: posts read before it are still stored, and the summary says where it stopped.*/
+    public ImportSummary importPosts(InputStream body, User user) throws IOException {
+        ImportSummary summary = new ImportSummary();
+        List<Post> chunk = new ArrayList<>(chunkSize);
+        long record = 0;
+        long parsed = 0;
+        JsonProcessingException malformed = null;
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                record++;
+                JsonNode node = parser.readValueAsTree();
+                parsed++;
+                Post post = toPost(node, record, summary);
+                if (post != null) {
+                    chunk.add(post);
+                    if (chunk.size() == chunkSize) {
+                        flush(chunk, user, summary);
+                    }
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            malformed = e;
+        }
+        flush(chunk, user, summary);
+        if (malformed != null) {
+            summary.stopAt(describe(malformed, parsed, summary.getAccepted()));
+        }
+        logger.info("Imported {} posts for user {}, rejected {}", summary.getAccepted(), user.getUsername(),
+                summary.getRejected());
+        return summary;
+    }
+
+    private static String describe(JsonProcessingException e, long parsed, long committed) {
+        JsonLocation location = e.getLocation();
+        String where = location == null ? "" : " at line " + location.getLineNr() + ", column " + location.getColumnNr();
+        return "malformed JSON" + where + " after record " + parsed + ": " + e.getOriginalMessage()
+                + "; " + committed + " posts committed before it, the rest of the body was not read";
+    }
+
+    private Post toPost(JsonNode node, long record, ImportSummary summary) {
+        try {
+            if (node == null || !node.isObject()) {
+                throw new BadRequestException("Post must be a JSON object");
+            }
+            Post post = objectMapper.treeToValue(node, Post.class);
+            post.setId(null);
+            PostService.validateContent(post);
+            return post;
+        } catch (BadRequestException | JsonProcessingException e) {
+            summary.reject(1, "record " + record + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void flush(List<Post> chunk, User user, ImportSummary summary) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            summary.accept(postService.bulkCreatePosts(chunk, user).size());
+        } catch (BadRequestException | InternalServerErrorException e) {
+            summary.reject(chunk.size(), "chunk of " + chunk.size() + " posts failed: " + e.getMessage());
+        }
+        chunk.clear();
+    }
+}
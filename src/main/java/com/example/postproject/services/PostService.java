@@ -1,16 +1,29 @@
 package com.example.postproject.services;
 
 import com.example.postproject.cache.SimpleCache;
+import com.example.postproject.datasource.ReplicaRead;
 import com.example.postproject.exceptions.BadRequestException;
 import com.example.postproject.exceptions.InternalServerErrorException;
+import com.example.postproject.exceptions.ServiceUnavailableException;
+import com.example.postproject.models.CursorPage;
 import com.example.postproject.models.Post;
+import com.example.postproject.models.TimelineCursor;
 import com.example.postproject.models.User;
 import com.example.postproject.repository.PostRepository;
-import com.example.postproject.services.RequestCounter;
+import com.example.postproject.search.PostSearch;
+import com.example.postproject.search.SearchHit;
+import com.example.postproject.search.SearchMode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 
@@ -18,16 +31,32 @@ import org.springframework.stereotype.Service;
 /**class of PostService.*/
 @Service
 public class PostService {
+    /**largest page a client can ask for.*/
+    private static final int MAX_PAGE_SIZE = 100;
+    /**size of the cached first timeline page of each user.*/
+    static final int FIRST_PAGE_SIZE = 20;
+    /**deepest search result a client can page to.*/
+    private static final int MAX_SEARCH_OFFSET = 1000;
     private static final Logger logger = LoggerFactory.getLogger(PostService.class);
     private final PostRepository postRepository;
     private final SimpleCache cache;
-    private final RequestCounter requestCounter;
+    private final PostBatchWriter postBatchWriter;
+    private final PostSearch postSearch;
+    private final CollectionVersions collectionVersions;
+    private final ObjectMapper objectMapper;
+    private final PostWriteBehind postWriteBehind;
 
     /**cache.*/
-    public PostService(PostRepository postRepository, SimpleCache cache, RequestCounter requestCounter) {
+    public PostService(PostRepository postRepository, SimpleCache cache, PostBatchWriter postBatchWriter,
+                       PostSearch postSearch, CollectionVersions collectionVersions, ObjectMapper objectMapper,
+                       PostWriteBehind postWriteBehind) {
         this.postRepository = postRepository;
         this.cache = cache;
-        this.requestCounter = requestCounter;
+        this.postBatchWriter = postBatchWriter;
+        this.postSearch = postSearch;
+        this.collectionVersions = collectionVersions;
+        this.objectMapper = objectMapper;
+        this.postWriteBehind = postWriteBehind;
     }
 
     private String getPostCacheKey(Long id) {
@@ -38,9 +67,18 @@ public class PostService {
         return "user_posts_" + username;
     }
 
+    /**title and text are required.*/
+    static void validateContent(Post post) {
+        if (post.getTitle() == null || post.getTitle().isEmpty()) {
+            throw new BadRequestException("Post title cannot be empty");
+        }
+        if (post.getText() == null || post.getText().isEmpty()) {
+            throw new BadRequestException("Post text cannot be empty");
+        }
+    }
+
     /**class for createPost.*/
     public Post createPost(Post post, User user) {
-        int requestNumber = requestCounter.increment();
         try {
             if (post == null) {
                 throw new BadRequestException("Post data cannot be null");
@@ -48,17 +86,11 @@ public class PostService {
             if (user == null) {
                 throw new BadRequestException("User cannot be null");
             }
-            if (post.getTitle() == null || post.getTitle().isEmpty()) {
-                throw new BadRequestException("Post title cannot be empty");
-            }
-            if (post.getText() == null || post.getText().isEmpty()) {
-                throw new BadRequestException("Post text cannot be empty");
-            }
+            validateContent(post);
 
             post.setUser(user);
             Post createdPost = postRepository.save(post);
-            cache.remove(getUserPostsCacheKey(user.getUsername()));
-            logger.info("Post created successfully: ID={}, User={}", createdPost.getId(), user.getUsername());
+            postCreated(createdPost, user);
             return createdPost;
         } catch (BadRequestException e) {
             logger.warn("Validation error in createPost: {}", e.getMessage());
@@ -69,9 +101,54 @@ public class PostService {
         }
     }
 
+    /**createPost through the write-behind queue if posts.write-behind.enabled is set: the post
+     * is committed together with others and the future completes after that commit.
+     * Otherwise createPost runs right away.*/
+    public CompletableFuture<Post> createPostAsync(Post post, User user) {
+        if (!postWriteBehind.isEnabled()) {
+            return CompletableFuture.completedFuture(createPost(post, user));
+        }
+        try {
+            if (post == null) {
+                throw new BadRequestException("Post data cannot be null");
+            }
+            if (user == null) {
+                throw new BadRequestException("User cannot be null");
+            }
+            validateContent(post);
+
+            post.setUser(user);
+            return postWriteBehind.submit(post).thenApply(createdPost -> {
+                postCreated(createdPost, user);
+                return createdPost;
+            });
+        } catch (BadRequestException e) {
+            logger.warn("Validation error in createPostAsync: {}", e.getMessage());
+            throw e;
+        } catch (ServiceUnavailableException e) {
+            logger.warn("Post rejected: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    /**invalidation after a committed insert. The post is stored whatever happens here, so a failure
+     * is logged and does not fail the request; with write-behind this runs on the writer thread.*/
+    private void postCreated(Post createdPost, User user) {
+        try {
+            cache.remove(getPostCacheKey(createdPost.getId()));
+            cache.remove(getUserPostsCacheKey(user.getUsername()));
+            collectionVersions.postsChanged();
+            postSearch.index(createdPost);
+            logger.info("Post created successfully: ID={}, User={}", createdPost.getId(), user.getUsername());
+        } catch (RuntimeException e) {
+            logger.error("Post {} was created, but updating caches or the search index failed: {}",
+                    createdPost.getId(), e.getMessage(), e);
+        }
+    }
+
     /**getAllPosts.*/
+    @ReplicaRead
     public List<Post> getAllPosts() {
-        int requestNumber = requestCounter.increment();
         try {
             List<Post> posts = postRepository.findAll();
             logger.info("Retrieved {} posts from database", posts.size());
@@ -82,27 +159,45 @@ public class PostService {
         }
     }
 
+    /**keyset page of posts ordered by id, after the given id.*/
+    @ReplicaRead
+    public CursorPage<Post, Long> getPostsPage(Long after, int limit) {
+        try {
+            if (after != null && after < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+                throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+            }
+            List<Post> posts = postRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after,
+                    Limit.of(limit + 1));
+            boolean hasMore = posts.size() > limit;
+            List<Post> page = hasMore ? posts.subList(0, limit) : posts;
+            Long nextCursor = hasMore ? page.get(page.size() - 1).getId() : null;
+            logger.info("Retrieved page of {} posts after ID={}", page.size(), after);
+            return new CursorPage<>(page, nextCursor);
+        } catch (BadRequestException e) {
+            logger.warn("Invalid request in getPostsPage: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Failed to fetch posts page: {}", e.getMessage(), e);
+            throw new InternalServerErrorException("Failed to fetch posts");
+        }
+    }
+
     /**get post by ID.*/
     public Optional<Post> getPostById(Long id) {
-        int requestNumber = requestCounter.increment();
         try {
             if (id == null || id <= 0) {
                 throw new BadRequestException("Invalid post ID");
             }
 
-            String cacheKey = getPostCacheKey(id);
-            Optional<Object> cachedPost = cache.get(cacheKey);
-
-            if (cachedPost.isPresent()) {
-                logger.debug("Retrieved post from cache: ID={}", id);
-                return Optional.of((Post) cachedPost.get());
-            }
-
-            Optional<Post> post = postRepository.findById(id);
-            if (post.isPresent()) {
-                cache.put(cacheKey, post.get());
-                logger.info("Retrieved post from database: ID={}", id);
-            } else {
+            Optional<Post> post = cache.getOrLoad(getPostCacheKey(id), () -> {
+                Optional<Post> loaded = postRepository.findById(id);
+                loaded.ifPresent(p -> logger.info("Retrieved post from database: ID={}", id));
+                return loaded;
+            });
+            if (post.isEmpty()) {
                 logger.warn("Post not found: ID={}", id);
             }
             return post;
@@ -115,9 +210,23 @@ public class PostService {
         }
     }
 
+    /**post as UTF-8 JSON. The bytes are kept next to the cached post, so they are encoded once
+     * per cache entry and dropped by the same put or remove that drops the post.*/
+    public Optional<byte[]> getPostJson(Long id) {
+        Optional<byte[]> json = cache.getSerialized(getPostCacheKey(id));
+        if (json.isPresent()) {
+            return json;
+        }
+        return getPostById(id).map(post -> encode(getPostCacheKey(id), post, post));
+    }
+
+    /**post from the cache only, never touches the database.*/
+    public Optional<Post> getCachedPost(Long id) {
+        return cache.get(getPostCacheKey(id)).map(Post.class::cast);
+    }
+
     /**update post.*/
     public Post updatePost(Long id, Post postDetails) {
-        int requestNumber = requestCounter.increment();
         try {
             if (id == null || id <= 0) {
                 throw new BadRequestException("Invalid post ID");
@@ -142,6 +251,8 @@ public class PostService {
             if (post.getUser() != null) {
                 cache.remove(getUserPostsCacheKey(post.getUser().getUsername()));
             }
+            postSearch.index(updatedPost);
+            collectionVersions.postsChanged();
             logger.info("Post updated successfully: ID={}", id);
             return updatedPost;
         } catch (BadRequestException e) {
@@ -155,7 +266,6 @@ public class PostService {
 
     /**delete post method.*/
     public void deletePost(Long id) {
-        int requestNumber = requestCounter.increment();
         try {
             if (id == null || id <= 0) {
                 throw new BadRequestException("Invalid post ID");
@@ -168,6 +278,8 @@ public class PostService {
 
             postRepository.deleteById(id);
             cache.remove(getPostCacheKey(id));
+            postSearch.remove(id);
+            collectionVersions.postsChanged();
             post.ifPresent(p -> {
                 if (p.getUser() != null) {
                     cache.remove(getUserPostsCacheKey(p.getUser().getUsername()));
@@ -185,7 +297,6 @@ public class PostService {
 
     /**bulk-create posts.*/
     public List<Post> bulkCreatePosts(List<Post> posts, User user) {
-        int requestNumber = requestCounter.increment();
         try {
             if (posts == null || posts.isEmpty()) {
                 throw new BadRequestException("Posts list cannot be null or empty");
@@ -196,20 +307,16 @@ public class PostService {
 
             // Validate all posts before processing
             posts.forEach(post -> {
-                if (post.getTitle() == null || post.getTitle().isEmpty()) {
-                    throw new BadRequestException("Post title cannot be empty");
-                }
-                if (post.getText() == null || post.getText().isEmpty()) {
-                    throw new BadRequestException("Post text cannot be empty");
-                }
+                validateContent(post);
                 post.setUser(user);
             });
 
-            List<Post> createdPosts = posts.stream()
-                    .map(postRepository::save)
-                    .toList();
+            List<Post> createdPosts = postBatchWriter.insertAll(posts);
 
+            createdPosts.forEach(p -> cache.remove(getPostCacheKey(p.getId())));
             cache.remove(getUserPostsCacheKey(user.getUsername()));
+            postSearch.indexAll(createdPosts);
+            collectionVersions.postsChanged();
             logger.info("Bulk created {} posts for user: {}", createdPosts.size(), user.getUsername());
             return createdPosts;
         } catch (BadRequestException e) {
@@ -222,23 +329,15 @@ public class PostService {
     }
 
     /**delete post method.*/
+    @ReplicaRead
     public List<Post> getPostsByUsername(String username) {
-        int requestNumber = requestCounter.increment();
         try {
             if (username == null || username.isEmpty()) {
                 throw new BadRequestException("Username cannot be empty");
             }
 
-            String cacheKey = getUserPostsCacheKey(username);
-            Optional<Object> cachedPosts = cache.get(cacheKey);
-
-            if (cachedPosts.isPresent()) {
-                logger.debug("Retrieved posts from cache for user: {}", username);
-                return (List<Post>) cachedPosts.get();
-            }
-
+            // the whole list is not cached, a prolific user would fill the cache; see getUserTimeline
             List<Post> posts = postRepository.findPostsByUsername(username);
-            cache.put(cacheKey, posts);
             logger.info("Retrieved {} posts for user: {}", posts.size(), username);
             return posts;
         } catch (BadRequestException e) {
@@ -249,4 +348,151 @@ public class PostService {
             throw new InternalServerErrorException("Failed to fetch posts");
         }
     }
+
+    /**user's posts newest first, {@code limit} at a time after the {@link TimelineCursor} token {@code before}.
+     * Only the first page is cached, as the first FIRST_PAGE_SIZE + 1 posts, so any
+     * first page up to that size is served from one entry.*/
+    public CursorPage<Post, String> getUserTimeline(String username, String before, int limit) {
+        try {
+            if (username == null || username.isEmpty()) {
+                throw new BadRequestException("Username cannot be empty");
+            }
+            TimelineCursor cursor = before == null ? null : parseCursor(before);
+            if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+                throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+            }
+            List<Post> posts;
+            if (before == null && limit <= FIRST_PAGE_SIZE) {
+                posts = getFirstTimelinePosts(username);
+            } else if (before == null) {
+                posts = postRepository.findTimeline(username, Limit.of(limit + 1));
+            } else {
+                posts = postRepository.findTimelineBefore(username, cursor.publishingDate(), cursor.id(),
+                        Limit.of(limit + 1));
+            }
+            CursorPage<Post, String> page = toTimelinePage(posts, limit);
+            logger.info("Retrieved timeline page of {} posts for user: {}", page.getItems().size(), username);
+            return page;
+        } catch (BadRequestException e) {
+            logger.warn("Invalid request in getUserTimeline: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Failed to fetch timeline: {}", e.getMessage(), e);
+            throw new InternalServerErrorException("Failed to fetch posts");
+        }
+    }
+
+    /**timeline page as UTF-8 JSON. The default first page is encoded once and kept next to the
+     * cached posts it is made of; other pages are encoded on every request.*/
+    public byte[] getUserTimelineJson(String username, String before, int limit) {
+        if (before != null || limit != FIRST_PAGE_SIZE || username == null || username.isEmpty()) {
+            CursorPage<Post, String> page = getUserTimeline(username, before, limit);
+            return encode(null, null, page);
+        }
+        String key = getUserPostsCacheKey(username);
+        Optional<byte[]> json = cache.getSerialized(key);
+        if (json.isPresent()) {
+            return json.get();
+        }
+        try {
+            List<Post> posts = getFirstTimelinePosts(username);
+            return encode(key, posts, toTimelinePage(posts, limit));
+        } catch (InternalServerErrorException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Failed to fetch timeline: {}", e.getMessage(), e);
+            throw new InternalServerErrorException("Failed to fetch posts");
+        }
+    }
+
+    /**first FIRST_PAGE_SIZE + 1 posts of the user, the one cached timeline entry.*/
+    private List<Post> getFirstTimelinePosts(String username) {
+        return cache.<List<Post>>getOrLoad(getUserPostsCacheKey(username), () ->
+                Optional.of(postRepository.findTimeline(username, Limit.of(FIRST_PAGE_SIZE + 1)))).orElseThrow();
+    }
+
+    /**page of {@code limit} posts out of up to {@code limit + 1} fetched ones.*/
+    private static CursorPage<Post, String> toTimelinePage(List<Post> posts, int limit) {
+        boolean hasMore = posts.size() > limit;
+        List<Post> page = hasMore ? posts.subList(0, limit) : posts;
+        String nextCursor = hasMore ? TimelineCursor.after(page.get(page.size() - 1)).encode() : null;
+        return new CursorPage<>(List.copyOf(page), nextCursor);
+    }
+
+    private static TimelineCursor parseCursor(String token) {
+        try {
+            return TimelineCursor.decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    /**JSON of {@code body}; attached to the cache entry under {@code key} if it still holds {@code cached}.*/
+    private byte[] encode(String key, Object cached, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            if (key != null) {
+                cache.attachSerialized(key, cached, json);
+            }
+            return json;
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to encode JSON: {}", e.getMessage(), e);
+            throw new InternalServerErrorException("Failed to encode response");
+        }
+    }
+
+    /**full-text search over titles and texts, best matches first.
+     * The search backend yields ids; posts come from the cache, the rest from one lookup by primary key.
+     * That lookup does not fill the cache: unlike getOrLoad it is not dropped by a concurrent
+     * update or delete, so it could cache a deleted or outdated post for the whole TTL.*/
+    public List<Post> searchPosts(String query, String mode, int offset, int limit) {
+        try {
+            if (query == null || query.isBlank()) {
+                throw new BadRequestException("Search query cannot be empty");
+            }
+            if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+                throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+            }
+            if (offset < 0 || offset > MAX_SEARCH_OFFSET) {
+                throw new BadRequestException("Offset must be between 0 and " + MAX_SEARCH_OFFSET);
+            }
+            SearchMode searchMode = SearchMode.of(mode)
+                    .orElseThrow(() -> new BadRequestException("Search mode must be AND or OR"));
+
+            List<SearchHit> hits = postSearch.search(query, searchMode, offset, limit);
+            Map<Long, Post> found = new HashMap<>();
+            List<Long> uncached = new ArrayList<>();
+            for (SearchHit hit : hits) {
+                Optional<Post> cached = getCachedPost(hit.postId());
+                if (cached.isPresent()) {
+                    found.put(hit.postId(), cached.get());
+                } else {
+                    uncached.add(hit.postId());
+                }
+            }
+            if (!uncached.isEmpty()) {
+                for (Post post : postRepository.findAllById(uncached)) {
+                    found.put(post.getId(), post);
+                }
+            }
+            List<Post> posts = new ArrayList<>(hits.size());
+            for (SearchHit hit : hits) {
+                Post post = found.get(hit.postId());
+                if (post != null) {
+                    posts.add(post);
+                } else {
+                    // deleted behind the search backend's back, e.g. together with its user
+                    postSearch.remove(hit.postId());
+                }
+            }
+            logger.info("Search '{}' ({}) matched {} posts", query, searchMode, posts.size());
+            return posts;
+        } catch (BadRequestException e) {
+            logger.warn("Invalid request in searchPosts: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Failed to search posts: {}", e.getMessage(), e);
+            throw new InternalServerErrorException("Failed to search posts");
+        }
+    }
 }
@@ -0,0 +1,206 @@
+package com.example.postproject.services;
+
+import com.example.postproject.exceptions.InternalServerErrorException;
+import com.example.postproject.exceptions.ServiceUnavailableException;
+import com.example.postproject.models.Post;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**write-behind for single post creation, on with posts.write-behind.enabled. Posts wait in a
+ * bounded queue; one thread inserts them through PostBatchWriter, one transaction per batch of
+ * up to max-batch posts gathered for at most max-delay. A caller's future completes after the
+ * commit. A full queue fails with ServiceUnavailableException (503) after offer-timeout, and
+ * so does every post still queued once the writer has stopped.*/
+@Component
+public class PostWriteBehind {
+    private static final Logger logger = LoggerFactory.getLogger(PostWriteBehind.class);
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final PostBatchWriter postBatchWriter;
+    private final boolean enabled;
+    private final BlockingQueue<Pending> queue;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final long offerTimeoutMillis;
+    private volatile boolean running;
+    private Thread flusher;
+
+    @SuppressWarnings({"checkstyle:MissingJavadocMethod"})
+    public PostWriteBehind(PostBatchWriter postBatchWriter,
+                           @Value("${posts.write-behind.enabled:false}") boolean enabled,
+                           @Value("${posts.write-behind.queue-capacity:10000}") int queueCapacity,
+                           @Value("${posts.write-behind.max-batch:${posts.bulk.batch-size:50}}") int maxBatch,
+                           @Value("${posts.write-behind.max-delay:5ms}") Duration maxDelay,
+                           @Value("${posts.write-behind.offer-timeout:50ms}") Duration offerTimeout) {
+        this.postBatchWriter = postBatchWriter;
+        this.enabled = enabled;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatch = maxBatch;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.offerTimeoutMillis = offerTimeout.toMillis();
+    }
+
+    /**false means createPost commits on the caller's thread as before.*/
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::run, "post-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**queue a validated post that already has its user; the future yields it with its id.*/
+    public CompletableFuture<Post> submit(Post post) {
+        if (!running) {
+            throw new ServiceUnavailableException("Post writer is not running");
+        }
+        Pending pending = new Pending(post, new CompletableFuture<>());
+        boolean accepted;
+        try {
+            accepted = queue.offer(pending, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            throw new ServiceUnavailableException("Too many posts waiting to be written");
+        }
+        // stop() may have come between the check above and the offer, and the flusher may be gone;
+        // if the post is still in the queue nobody will write it, otherwise its taker completes it
+        if (!running && queue.remove(pending)) {
+            throw new ServiceUnavailableException("Post writer is not running");
+        }
+        return pending.result();
+    }
+
+    /**posts waiting for the next batch.*/
+    public int queued() {
+        return queue.size();
+    }
+
+    /**stops taking posts and writes what is queued; runs before the EntityManager closes.*/
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+        if (flusher.isAlive()) {
+            flusher.interrupt();
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        failQueued();
+    }
+
+    /**fails posts left in the queue once no thread will take them.*/
+    private void failQueued() {
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        if (!left.isEmpty()) {
+            logger.warn("Post writer stopped with {} posts queued, rejecting them", left.size());
+        }
+        left.forEach(pending -> pending.result().completeExceptionally(
+                new ServiceUnavailableException("Post writer is not running")));
+    }
+
+    private void run() {
+        try {
+            writeUntilStopped();
+        } finally {
+            failQueued();
+        }
+    }
+
+    private void writeUntilStopped() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatch || wait <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                flush(batch);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Post writer failed: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**one commit for the batch; if it fails, each post is retried alone so one bad post
+     * does not fail the others.*/
+    private void flush(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            postBatchWriter.insertAll(batch.stream().map(Pending::post).toList());
+            batch.forEach(pending -> pending.result().complete(pending.post()));
+            logger.debug("Group commit of {} posts", batch.size());
+            return;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), e);
+                return;
+            }
+            logger.warn("Group commit of {} posts failed, writing them one by one: {}", batch.size(), e.getMessage());
+        }
+        for (Pending pending : batch) {
+            // ids handed out to the rolled back batch would make persist treat the post as detached
+            pending.post().setId(null);
+            try {
+                postBatchWriter.insertAll(List.of(pending.post()));
+                pending.result().complete(pending.post());
+            } catch (RuntimeException e) {
+                fail(pending, e);
+            }
+        }
+    }
+
+    private static void fail(Pending pending, RuntimeException e) {
+        logger.error("Failed to create post: {}", e.getMessage(), e);
+        pending.post().setId(null);
+        pending.result().completeExceptionally(new InternalServerErrorException("Failed to create post"));
+    }
+
+    private record Pending(Post post, CompletableFuture<Post> result) {
+    }
+}
@@ -1,32 +1,62 @@
 package com.example.postproject.services;
 
+import com.example.postproject.metrics.SlidingWindowCounter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 import org.springframework.stereotype.Service;
 
-/**requestCounter class.*/
+/**requestCounter class.
+ * Striped LongAdder totals, no shared monitor on the request path.*/
 @Service
 public class RequestCounter {
-    private int count = 0;
-    private final Object lock = new Object(); // Объект для синхронизации
+    private final LongAdder count = new LongAdder();
+    private final ConcurrentMap<String, RouteCounter> routes = new ConcurrentHashMap<>();
 
   /**increment.*/
-    public int increment() {
-        synchronized (lock) {
-            count++;
-            return count;
+    public long increment() {
+        count.increment();
+        return count.sum();
+    }
+
+    /**count one request of the route, e.g. ("GET", "/posts/{id}").*/
+    public void record(String method, String route) {
+        count.increment();
+        String key = method + " " + route;
+        RouteCounter counter = routes.get(key);
+        if (counter == null) {
+            counter = routes.computeIfAbsent(key, k -> new RouteCounter());
         }
+        counter.total.increment();
+        counter.window.increment();
     }
 
    /**get count method.*/
-    public int getCount() {
-        synchronized (lock) {
-            return count;
-        }
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**totals and 1s/1m/5m rates per route.*/
+    public Map<String, Map<String, Number>> getRoutes() {
+        Map<String, Map<String, Number>> snapshot = new TreeMap<>();
+        routes.forEach((route, counter) -> snapshot.put(route, Map.of(
+                "total", counter.total.sum(),
+                "rate1s", counter.window.rate(1),
+                "rate1m", counter.window.rate(60),
+                "rate5m", counter.window.rate(SlidingWindowCounter.WINDOW_SECONDS))));
+        return snapshot;
     }
 
    /**reset counter.*/
     public void reset() {
-        synchronized (lock) {
-            count = 0;
-        }
+        count.reset();
+        routes.clear();
+    }
+
+    private static final class RouteCounter {
+        private final LongAdder total = new LongAdder();
+        private final SlidingWindowCounter window = new SlidingWindowCounter();
     }
 }
@@ -1,6 +1,5 @@
 package com.example.postproject.services;
 
-import com.example.postproject.services.RequestCounter;
 import com.example.postproject.models.ServerStatus;
 import com.example.postproject.singleton.ServerStatusSingleton;
 import org.springframework.stereotype.Service;
@@ -17,27 +16,26 @@ public class StatusService {
         this.requestCounter = requestCounter;
     }
 
-    public boolean isServerAvailable() {
-        requestCounter.increment();
-        return serverStatus.isAvailable();
-    }
-
     public Map<String, String> updateAndGetStatus(String status) {
-        requestCounter.increment();
-
         if (status != null) {
             if ("available".equalsIgnoreCase(status)) {
-                serverStatus.setAvailable(true);
+                serverStatus.setState(ServerStatus.State.AVAILABLE);
             } else if ("unavailable".equalsIgnoreCase(status)) {
-                serverStatus.setAvailable(false);
+                serverStatus.setState(ServerStatus.State.UNAVAILABLE);
+            } else if ("draining".equalsIgnoreCase(status)) {
+                serverStatus.setState(ServerStatus.State.DRAINING);
             }
         }
 
+        ServerStatus.State state = serverStatus.getState();
         Map<String, String> response = new HashMap<>();
-        response.put("status", serverStatus.isAvailable() ? "available" : "unavailable");
-        response.put("message", serverStatus.isAvailable()
-                ? "Сервис работает в штатном режиме"
-                : "Сервис временно недоступен");
+        response.put("status", state.name().toLowerCase());
+        response.put("message", switch (state) {
+            case AVAILABLE -> "Сервис работает в штатном режиме";
+            case DRAINING -> "Сервис завершает текущие записи и не принимает новые";
+            case UNAVAILABLE -> "Сервис временно недоступен";
+        });
+        response.put("writesInFlight", String.valueOf(serverStatus.getWritesInFlight().get()));
         response.put("totalRequests", String.valueOf(requestCounter.getCount()));
 
         return response;
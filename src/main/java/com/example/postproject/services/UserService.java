@@ -1,43 +1,55 @@
 package com.example.postproject.services;
 
 import com.example.postproject.cache.SimpleCache;
+import com.example.postproject.datasource.ReplicaRead;
 import com.example.postproject.exceptions.BadRequestException;
 import com.example.postproject.exceptions.InternalServerErrorException;
+import com.example.postproject.models.CursorPage;
 import com.example.postproject.models.User;
 import com.example.postproject.repository.UserRepository;
-import com.example.postproject.services.RequestCounter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.List;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 /**user service realization.*/
 @Service
 public class UserService {
+    /**largest page a client can ask for.*/
+    private static final int MAX_PAGE_SIZE = 100;
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     private final UserRepository userRepository;
     private final SimpleCache cache;
-    private final RequestCounter requestCounter;
+    private final CollectionVersions collectionVersions;
+    private final ObjectMapper objectMapper;
 
     /**cache for User.*/
-    public UserService(UserRepository userRepository, SimpleCache cache, RequestCounter requestCounter) {
+    public UserService(UserRepository userRepository, SimpleCache cache, CollectionVersions collectionVersions,
+                       ObjectMapper objectMapper) {
         this.userRepository = userRepository;
         this.cache = cache;
-        this.requestCounter = requestCounter;
+        this.collectionVersions = collectionVersions;
+        this.objectMapper = objectMapper;
     }
 
     private String getUserCacheKey(Long id) {
         return "user_" + id;
     }
 
+    private String getUsernameCacheKey(String username) {
+        return "user_username_" + username;
+    }
+
     private String getAllUsersCacheKey() {
         return "all_users";
     }
 
     /**createUser method.*/
     public User createUser(User user) {
-        int requestNumber = requestCounter.increment();
         try {
             if (user == null) {
                 throw new BadRequestException("User data cannot be null");
@@ -53,7 +65,10 @@ public class UserService {
             }
 
             User createdUser = userRepository.save(user);
+            cache.remove(getUserCacheKey(createdUser.getId()));
+            cache.remove(getUsernameCacheKey(createdUser.getUsername()));
             cache.remove(getAllUsersCacheKey());
+            collectionVersions.usersChanged();
             logger.info("User created successfully: ID={}, Email={}", createdUser.getId(), createdUser.getEmail());
             return createdUser;
         } catch (BadRequestException e) {
@@ -67,47 +82,57 @@ public class UserService {
 
     /**getAllUsers method.*/
     public List<User> getAllUsers() {
-        int requestNumber = requestCounter.increment();
         try {
-            String cacheKey = getAllUsersCacheKey();
-            Optional<Object> cachedUsers = cache.get(cacheKey);
+            return cache.<List<User>>getOrLoad(getAllUsersCacheKey(), () -> {
+                List<User> users = userRepository.findAll();
+                logger.info("Retrieved {} users from database", users.size());
+                return Optional.of(users);
+            }).orElseThrow();
+        } catch (Exception e) {
+            logger.error("Failed to fetch users: {}", e.getMessage(), e);
+            throw new InternalServerErrorException("Failed to fetch users");
+        }
+    }
 
-            if (cachedUsers.isPresent()) {
-                logger.debug("Retrieved users from cache");
-                return (List<User>) cachedUsers.get();
+    /**keyset page of users ordered by id, after the given id.*/
+    @ReplicaRead
+    public CursorPage<User, Long> getUsersPage(Long after, int limit) {
+        try {
+            if (after != null && after < 0) {
+                throw new BadRequestException("Invalid cursor");
             }
-
-            List<User> users = userRepository.findAll();
-            cache.put(cacheKey, users);
-            logger.info("Retrieved {} users from database", users.size());
-            return users;
+            if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+                throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+            }
+            List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after,
+                    Limit.of(limit + 1));
+            boolean hasMore = users.size() > limit;
+            List<User> page = hasMore ? users.subList(0, limit) : users;
+            Long nextCursor = hasMore ? page.get(page.size() - 1).getId() : null;
+            logger.info("Retrieved page of {} users after ID={}", page.size(), after);
+            return new CursorPage<>(page, nextCursor);
+        } catch (BadRequestException e) {
+            logger.warn("Invalid request in getUsersPage: {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
-            logger.error("Failed to fetch users: {}", e.getMessage(), e);
+            logger.error("Failed to fetch users page: {}", e.getMessage(), e);
             throw new InternalServerErrorException("Failed to fetch users");
         }
     }
 
     /**getUserById method.*/
     public Optional<User> getUserById(Long id) {
-        int requestNumber = requestCounter.increment();
         try {
             if (id == null || id <= 0) {
                 throw new BadRequestException("Invalid user ID");
             }
 
-            String cacheKey = getUserCacheKey(id);
-            Optional<Object> cachedUser = cache.get(cacheKey);
-
-            if (cachedUser.isPresent()) {
-                logger.debug("Retrieved user from cache: ID={}", id);
-                return Optional.of((User) cachedUser.get());
-            }
-
-            Optional<User> user = userRepository.findById(id);
-            if (user.isPresent()) {
-                cache.put(cacheKey, user.get());
-                logger.info("Retrieved user from database: ID={}", id);
-            } else {
+            Optional<User> user = cache.getOrLoad(getUserCacheKey(id), () -> {
+                Optional<User> loaded = userRepository.findById(id);
+                loaded.ifPresent(u -> logger.info("Retrieved user from database: ID={}", id));
+                return loaded;
+            });
+            if (user.isEmpty()) {
                 logger.warn("User not found: ID={}", id);
             }
             return user;
@@ -120,27 +145,42 @@ public class UserService {
         }
     }
 
+    /**user as UTF-8 JSON, encoded once per cache entry and dropped together with it.*/
+    public Optional<byte[]> getUserJson(Long id) {
+        Optional<byte[]> json = cache.getSerialized(getUserCacheKey(id));
+        if (json.isPresent()) {
+            return json;
+        }
+        return getUserById(id).map(user -> {
+            try {
+                byte[] bytes = objectMapper.writeValueAsBytes(user);
+                cache.attachSerialized(getUserCacheKey(id), user, bytes);
+                return bytes;
+            } catch (JsonProcessingException e) {
+                logger.error("Failed to encode user: {}", e.getMessage(), e);
+                throw new InternalServerErrorException("Failed to fetch user");
+            }
+        });
+    }
+
+    /**user from the cache only, never touches the database.*/
+    public Optional<User> getCachedUser(Long id) {
+        return cache.get(getUserCacheKey(id)).map(User.class::cast);
+    }
+
     /**getUserByUsername method.*/
     public Optional<User> getUserByUsername(String username) {
-        int requestNumber = requestCounter.increment();
         try {
             if (username == null || username.isEmpty()) {
                 throw new BadRequestException("Username cannot be empty");
             }
 
-            String cacheKey = "user_username_" + username;
-            Optional<Object> cachedUser = cache.get(cacheKey);
-
-            if (cachedUser.isPresent()) {
-                logger.debug("Retrieved user from cache: username={}", username);
-                return Optional.of((User) cachedUser.get());
-            }
-
-            Optional<User> user = userRepository.findByUsername(username);
-            if (user.isPresent()) {
-                cache.put(cacheKey, user.get());
-                logger.info("Retrieved user from database: username={}", username);
-            } else {
+            Optional<User> user = cache.getOrLoad(getUsernameCacheKey(username), () -> {
+                Optional<User> loaded = userRepository.findByUsername(username);
+                loaded.ifPresent(u -> logger.info("Retrieved user from database: username={}", username));
+                return loaded;
+            });
+            if (user.isEmpty()) {
                 logger.warn("User not found: username={}", username);
             }
             return user;
@@ -155,7 +195,6 @@ public class UserService {
 
     /**updateUser method.*/
     public User updateUser(Long id, User userDetails) {
-        int requestNumber = requestCounter.increment();
         try {
             if (id == null || id <= 0) {
                 throw new BadRequestException("Invalid user ID");
@@ -173,13 +212,17 @@ public class UserService {
             if (userDetails.getPassword() != null) {
                 user.setPassword(userDetails.getPassword());
             }
+            String previousUsername = user.getUsername();
             if (userDetails.getUsername() != null) {
                 user.setUsername(userDetails.getUsername());
             }
 
             User updatedUser = userRepository.save(user);
             cache.put(getUserCacheKey(id), updatedUser);
+            cache.remove(getUsernameCacheKey(previousUsername));
+            cache.remove(getUsernameCacheKey(updatedUser.getUsername()));
             cache.remove(getAllUsersCacheKey());
+            collectionVersions.usersChanged();
             logger.info("User updated successfully: ID={}", id);
             return updatedUser;
         } catch (BadRequestException e) {
@@ -193,7 +236,6 @@ public class UserService {
 
     /**deleteUser method.*/
     public void deleteUser(Long id) {
-        int requestNumber = requestCounter.increment();
         try {
             if (id == null || id <= 0) {
                 throw new BadRequestException("Invalid user ID");
@@ -206,6 +248,7 @@ public class UserService {
             userRepository.deleteById(id);
             cache.remove(getUserCacheKey(id));
             cache.remove(getAllUsersCacheKey());
+            collectionVersions.usersChanged();
             logger.info("User deleted successfully: ID={}", id);
         } catch (BadRequestException e) {
             logger.warn("Validation error in deleteUser: {}", e.getMessage());
@@ -4,21 +4,18 @@ import com.example.postproject.models.ServerStatus;
 
 /**singleton for serverStatus.*/
 public class ServerStatusSingleton {
-    private static ServerStatus instance;
 
     private ServerStatusSingleton() {
 
     }
 
+    /**lazy holder: the JVM initializes it once, no lock for virtual threads to pin on.*/
+    private static final class Holder {
+        private static final ServerStatus INSTANCE = new ServerStatus();
+    }
+
     /**getInstance method.*/
     public static ServerStatus getInstance() {
-        if (instance == null) {
-            synchronized (ServerStatusSingleton.class) {
-                if (instance == null) {
-                    instance = new ServerStatus();
-                }
-            }
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 }
@@ -6,6 +6,10 @@ const addPostForm = document.getElementById('addPostForm');
 const editPostForm = document.getElementById('editPostForm');
 const searchByUserBtn = document.getElementById('searchByUserBtn');
 const usernameSearch = document.getElementById('usernameSearch');
+const loadMoreBtn = document.getElementById('loadMoreBtn');
+const TIMELINE_PAGE_SIZE = 20;
+let timelineUser = null;
+let timelineCursor = null;
 const editPostModal = new bootstrap.Modal(document.getElementById('editPostModal'));
 
 document.addEventListener('DOMContentLoaded', loadAllPosts);
@@ -52,21 +56,34 @@ addPostForm.addEventListener('submit', function(e) {
 searchByUserBtn.addEventListener('click', () => {
     const username = usernameSearch.value.trim();
     if (username) {
-        fetch(`${API_BASE_URL}/byuser/${username}`)
-            .then(response => {
-                if (!response.ok) throw new Error('Ошибка при поиске постов');
-                return response.json();
-            })
-            .then(posts => {
-                renderPosts(posts);
-                document.querySelector('#postsContainer h2').textContent = `Посты пользователя ${username}`;
-            })
-            .catch(error => alert('Ошибка: ' + error.message));
+        loadTimelinePage(username, null);
     } else {
         loadAllPosts();
     }
 });
 
+loadMoreBtn.addEventListener('click', () => loadTimelinePage(timelineUser, timelineCursor));
+
+function loadTimelinePage(username, cursor) {
+    let url = `${API_BASE_URL}/byuser/${encodeURIComponent(username)}?limit=${TIMELINE_PAGE_SIZE}`;
+    if (cursor) {
+        url += `&before=${encodeURIComponent(cursor)}`;
+    }
+    fetch(url)
+        .then(response => {
+            if (!response.ok) throw new Error('Ошибка при поиске постов');
+            return response.json();
+        })
+        .then(page => {
+            renderPosts(page.items, cursor !== null);
+            timelineUser = username;
+            timelineCursor = page.nextCursor;
+            loadMoreBtn.classList.toggle('d-none', !timelineCursor);
+            document.querySelector('#postsContainer h2').textContent = `Посты пользователя ${username}`;
+        })
+        .catch(error => alert('Ошибка: ' + error.message));
+}
+
 function loadAllPosts() {
     fetch(API_BASE_URL)
         .then(response => {
@@ -75,15 +92,19 @@ function loadAllPosts() {
         })
         .then(posts => {
             renderPosts(posts);
+            timelineCursor = null;
+            loadMoreBtn.classList.add('d-none');
             document.querySelector('#postsContainer h2').textContent = 'Все посты';
         })
         .catch(error => alert('Ошибка: ' + error.message));
 }
 
-function renderPosts(posts) {
-    postsList.innerHTML = '';
+function renderPosts(posts, append = false) {
+    if (!append) {
+        postsList.innerHTML = '';
+    }
 
-    if (posts.length === 0) {
+    if (posts.length === 0 && !append) {
         postsList.innerHTML = '<div class="col-12"><div class="alert alert-info">Посты не найдены</div></div>';
         return;
     }
@@ -106,15 +127,11 @@ function renderPosts(posts) {
             </div>
         `;
         postsList.appendChild(postCard);
-    });
-
-    document.querySelectorAll('.edit-post').forEach(btn => {
-        btn.addEventListener('click', () => openEditModal(btn.dataset.id));
-    });
 
-    document.querySelectorAll('.delete-post').forEach(btn => {
-        btn.addEventListener('click', () => {
-            if (confirm('Удалить пост?')) deletePost(btn.dataset.id);
+        // only the new card: on "show more" the earlier ones already have their handlers
+        postCard.querySelector('.edit-post').addEventListener('click', () => openEditModal(post.id));
+        postCard.querySelector('.delete-post').addEventListener('click', () => {
+            if (confirm('Удалить пост?')) deletePost(post.id);
         });
     });
 }
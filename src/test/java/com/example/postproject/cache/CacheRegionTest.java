@@ -0,0 +1,29 @@
+package com.example.postproject.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheRegionTest {
+
+    @Test
+    void overlappingPrefixesResolveToTheLongest() {
+        assertEquals(CacheRegion.USER_POSTS, CacheRegion.forKey("user_posts_alice"));
+        assertEquals(CacheRegion.USER_USERNAME, CacheRegion.forKey("user_username_alice"));
+        assertEquals(CacheRegion.USER, CacheRegion.forKey("user_1"));
+        assertEquals(CacheRegion.POST, CacheRegion.forKey("post_1"));
+        assertEquals(CacheRegion.ALL_USERS, CacheRegion.forKey("all_users"));
+    }
+
+    @Test
+    void usernameThatLooksLikeAPrefixStaysInItsRegion() {
+        assertEquals(CacheRegion.USER_POSTS, CacheRegion.forKey("user_posts_user_1"));
+        assertEquals(CacheRegion.USER_USERNAME, CacheRegion.forKey("user_username_posts_x"));
+    }
+
+    @Test
+    void unknownKeyIsOther() {
+        assertEquals(CacheRegion.OTHER, CacheRegion.forKey("something"));
+        assertEquals(CacheRegion.OTHER, CacheRegion.forKey(""));
+    }
+}
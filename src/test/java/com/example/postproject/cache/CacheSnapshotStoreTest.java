@@ -0,0 +1,121 @@
+package com.example.postproject.cache;
+
+import com.example.postproject.models.Post;
+import com.example.postproject.models.User;
+import com.example.postproject.repository.PostRepository;
+import com.example.postproject.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CacheSnapshotStoreTest {
+
+    @Test
+    void savesPostsWithoutTheAuthorsPassword() throws Exception {
+        Path file = Files.createTempFile("cache-snapshot", ".bin");
+        file.toFile().deleteOnExit();
+        User author = new User();
+        author.setId(1L);
+        author.setUsername("author");
+        author.setEmail("author@example.com");
+        author.setPassword("s3cret-password");
+        Post post = new Post();
+        post.setId(2L);
+        post.setUser(author);
+        post.setTitle("Title");
+        post.setText("Text");
+        SimpleCache cache = new SimpleCache(100, 4, Map.of());
+        cache.put("post_2", post);
+        cache.put("user_1", author);
+        cache.put("user_username_author", author);
+        CacheSnapshotStore store = new CacheSnapshotStore(cache, mock(PostRepository.class),
+                mock(UserRepository.class), new ObjectMapper().findAndRegisterModules(), true, file, Duration.ZERO, "2");
+
+        store.save();
+
+        String contents = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+        assertFalse(contents.contains("s3cret-password"));
+        assertTrue(contents.contains("post_2"));
+        assertFalse(contents.contains("user_1"));
+        assertFalse(contents.contains("user_username_author"));
+
+    }
+
+    @Test
+    void dropsPostsChangedSinceTheSaveAndReloadsAuthors() throws Exception {
+        Path file = Files.createTempFile("cache-snapshot", ".bin");
+        file.toFile().deleteOnExit();
+        User author = user("old-name", null);
+        SimpleCache cache = new SimpleCache(100, 4, Map.of());
+        cache.put("post_2", post(2L, author, 3L));
+        cache.put("post_5", post(5L, author, 1L));
+        cache.put("post_7", post(7L, author, 0L));
+        new CacheSnapshotStore(cache, mock(PostRepository.class), mock(UserRepository.class),
+                new ObjectMapper().findAndRegisterModules(), true, file, Duration.ZERO, "2").save();
+
+        PostRepository posts = mock(PostRepository.class);
+        // post 5 was updated after the save, post 7 was deleted
+        when(posts.findVersions(any())).thenReturn(List.of(version(2L, 3L), version(5L, 2L)));
+        UserRepository users = mock(UserRepository.class);
+        User current = user("new-name", "hash");
+        when(users.findAllById(any())).thenReturn(List.of(current));
+        SimpleCache restarted = new SimpleCache(100, 4, Map.of());
+        new CacheSnapshotStore(restarted, posts, users, new ObjectMapper().findAndRegisterModules(),
+                true, file, Duration.ZERO, "2").start();
+
+        Post restored = (Post) restarted.get("post_2").orElseThrow();
+        assertEquals(3L, restored.getVersion());
+        assertSame(current, restored.getUser());
+        assertTrue(restarted.get("post_5").isEmpty());
+        assertTrue(restarted.get("post_7").isEmpty());
+    }
+
+    private static User user(String username, String password) {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername(username);
+        user.setEmail("author@example.com");
+        user.setPassword(password);
+        return user;
+    }
+
+    private static Post post(Long id, User author, Long version) {
+        Post post = new Post();
+        post.setId(id);
+        post.setUser(author);
+        post.setTitle("Title " + id);
+        post.setText("Text");
+        post.setVersion(version);
+        return post;
+    }
+
+    private static PostRepository.PostVersion version(Long id, Long version) {
+        return new PostRepository.PostVersion() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+
+            @Override
+            public Long getUserId() {
+                return 1L;
+            }
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.postproject.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheSnapshotTest {
+    private static final CacheSnapshot.Codec STRINGS = new CacheSnapshot.Codec() {
+        @Override
+        public boolean supports(CacheRegion region) {
+            return region == CacheRegion.POST || region == CacheRegion.USER;
+        }
+
+        @Override
+        public long version(CacheRegion region, Object value) {
+            return 0;
+        }
+
+        @Override
+        public byte[] encode(CacheRegion region, Object value) {
+            return ((String) value).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Object decode(CacheRegion region, byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    @Test
+    void restoresEntitiesLazily() throws IOException {
+        Path file = tempFile();
+        SimpleCache before = new SimpleCache(100, 4, Map.of());
+        before.put("post_1", "post");
+        before.put("user_1", "user");
+        before.put("user_posts_bob", List.of("post"));
+        before.getOrLoad("post_404", Optional::empty);
+
+        assertEquals(2, CacheSnapshot.write(before, file, "1", STRINGS));
+
+        SimpleCache after = new SimpleCache(100, 4, Map.of());
+        CacheSnapshot snapshot = CacheSnapshot.open(file, "1", STRINGS).orElseThrow();
+        after.restoreFrom(snapshot);
+
+        assertEquals("post", after.get("post_1").orElseThrow());
+        assertEquals(1, snapshot.size());
+        assertTrue(after.get("user_posts_bob").isEmpty());
+        assertEquals(1, after.getStats().snapshot().get("post_").get("restores"));
+        assertEquals(1, after.getStats().snapshot().get("post_").get("entries"));
+    }
+
+    @Test
+    void invalidatedKeysAreNotRestored() throws IOException {
+        Path file = tempFile();
+        SimpleCache before = new SimpleCache(100, 4, Map.of());
+        before.put("post_1", "old");
+        before.put("user_1", "old");
+        CacheSnapshot.write(before, file, "1", STRINGS);
+
+        SimpleCache after = new SimpleCache(100, 4, Map.of());
+        after.restoreFrom(CacheSnapshot.open(file, "1", STRINGS).orElseThrow());
+        after.remove("post_1");
+        after.put("user_1", "new");
+        after.remove("user_1");
+
+        assertTrue(after.get("post_1").isEmpty());
+        assertTrue(after.get("user_1").isEmpty());
+    }
+
+    @Test
+    void expiredEntriesAreSkipped() throws Exception {
+        Path file = tempFile();
+        SimpleCache before = new SimpleCache(100, 4, Map.of(CacheRegion.POST, Duration.ofMillis(20)));
+        before.put("post_1", "post");
+        before.put("user_1", "user");
+        CacheSnapshot.write(before, file, "1", STRINGS);
+        Thread.sleep(30);
+
+        CacheSnapshot snapshot = CacheSnapshot.open(file, "1", STRINGS).orElseThrow();
+        assertEquals(1, snapshot.size());
+    }
+
+    @Test
+    void otherVersionOrDamagedFileIsIgnored() throws IOException {
+        Path file = tempFile();
+        SimpleCache before = new SimpleCache(100, 4, Map.of());
+        before.put("post_1", "post");
+        CacheSnapshot.write(before, file, "1", STRINGS);
+
+        assertTrue(CacheSnapshot.open(file, "2", STRINGS).isEmpty());
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+        assertTrue(CacheSnapshot.open(file, "1", STRINGS).isEmpty());
+        assertTrue(CacheSnapshot.open(file.resolveSibling("missing.bin"), "1", STRINGS).isEmpty());
+    }
+
+    private static Path tempFile() throws IOException {
+        Path dir = Files.createTempDirectory("cache-snapshot");
+        dir.toFile().deleteOnExit();
+        return dir.resolve("snapshot.bin");
+    }
+}
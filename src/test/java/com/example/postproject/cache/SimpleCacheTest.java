@@ -0,0 +1,303 @@
+package com.example.postproject.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimpleCacheTest {
+
+    @Test
+    void putAndGet() {
+        SimpleCache cache = new SimpleCache(100, 4, Map.of());
+        cache.put("post_1", "post");
+
+        assertEquals("post", cache.get("post_1").orElseThrow());
+        assertTrue(cache.get("post_2").isEmpty());
+    }
+
+    @Test
+    void remove() {
+        SimpleCache cache = new SimpleCache(100, 4, Map.of());
+        cache.put("post_1", "post");
+        cache.remove("post_1");
+
+        assertTrue(cache.get("post_1").isEmpty());
+    }
+
+    @Test
+    void clear() {
+        SimpleCache cache = new SimpleCache(100, 4, Map.of());
+        cache.put("post_1", "post");
+        cache.put("user_1", "user");
+        cache.clear();
+
+        assertTrue(cache.get("post_1").isEmpty());
+        assertTrue(cache.get("user_1").isEmpty());
+    }
+
+    @Test
+    void evictsColdEntriesFirst() {
+        SimpleCache cache = new SimpleCache(3, 1, Map.of());
+        cache.put("post_1", "hot");
+        cache.get("post_1");
+        cache.put("post_2", "cold");
+        cache.put("post_3", "cold");
+        cache.put("post_4", "cold");
+
+        assertTrue(cache.get("post_1").isPresent());
+        assertTrue(cache.get("post_2").isEmpty());
+        assertTrue(cache.get("post_4").isPresent());
+    }
+
+    @Test
+    void listsAreWeighedBySize() {
+        SimpleCache cache = new SimpleCache(5, 1, Map.of());
+        cache.put("post_1", "post");
+        cache.put("user_posts_testuser", List.of("a", "b", "c", "d"));
+
+        assertTrue(cache.get("post_1").isEmpty());
+        assertTrue(cache.get("user_posts_testuser").isPresent());
+    }
+
+    @Test
+    void expiresPerRegion() throws InterruptedException {
+        SimpleCache cache = new SimpleCache(100, 1, Map.of(CacheRegion.POST, Duration.ofMillis(1)));
+        cache.put("post_1", "post");
+        cache.put("user_1", "user");
+        Thread.sleep(5);
+
+        assertTrue(cache.get("post_1").isEmpty());
+        assertTrue(cache.get("user_1").isPresent());
+    }
+
+    @Test
+    void regionsResolveLongestPrefix() {
+        assertEquals(CacheRegion.USER_POSTS, CacheRegion.forKey("user_posts_bob"));
+        assertEquals(CacheRegion.USER_USERNAME, CacheRegion.forKey("user_username_bob"));
+        assertEquals(CacheRegion.USER, CacheRegion.forKey("user_7"));
+        assertEquals(CacheRegion.ALL_USERS, CacheRegion.forKey("all_users"));
+        assertEquals(CacheRegion.OTHER, CacheRegion.forKey("misc"));
+    }
+
+    @Test
+    void recordsStatsPerPrefix() {
+        SimpleCache cache = new SimpleCache(1, 1, Map.of());
+        cache.get("post_1");
+        cache.recordLoad("post_1", 2_000_000);
+        cache.put("post_1", "post");
+        cache.get("post_1");
+        cache.put("user_1", "user");
+
+        Map<String, Long> posts = cache.getStats().snapshot().get("post_");
+        assertEquals(1, posts.get("hits"));
+        assertEquals(1, posts.get("misses"));
+        assertEquals(1, posts.get("loads"));
+        assertEquals(2, posts.get("loadTimeMillis"));
+        assertEquals(1, posts.get("evictions"));
+        assertEquals(0, posts.get("entries"));
+        assertEquals(1, cache.getStats().snapshot().get("user_").get("entries"));
+    }
+
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        SimpleCache cache = new SimpleCache(100, 4, Map.of());
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+
+        Future<Optional<String>> first = pool.submit(() -> cache.getOrLoad("post_1", () -> {
+            loads.incrementAndGet();
+            loaderStarted.countDown();
+            await(release);
+            return Optional.of("post");
+        }));
+        loaderStarted.await();
+        Future<Optional<String>> second = pool.submit(() -> cache.getOrLoad("post_1", () -> {
+            loads.incrementAndGet();
+            return Optional.of("other");
+        }));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertEquals("post", first.get().orElseThrow());
+        assertEquals("post", second.get().orElseThrow());
+        assertEquals(1, loads.get());
+        assertEquals("post", cache.get("post_1").orElseThrow());
+        pool.shutdown();
+    }
+
+    @Test
+    void loaderFailureIsNotCached() {
+        SimpleCache cache = new SimpleCache(100, 4, Map.of());
+
+        assertThrows(IllegalStateException.class, () -> cache.getOrLoad("post_1", () -> {
+            throw new IllegalStateException("db down");
+        }));
+        assertEquals("post", cache.getOrLoad("post_1", () -> Optional.of("post")).orElseThrow());
+    }
+
+    @Test
+    void removeDuringLoadDropsTheLoadedValue() {
+        SimpleCache cache = new SimpleCache(100, 4, Map.of());
+
+        Optional<String> loaded = cache.getOrLoad("post_1", () -> {
+            cache.remove("post_1");
+            return Optional.of("stale");
+        });
+
+        assertEquals("stale", loaded.orElseThrow());
+        assertTrue(cache.get("post_1").isEmpty());
+    }
+
+    @Test
+    void putDuringLoadWins() throws Exception {
+        SimpleCache cache = new SimpleCache(100, 4, Map.of());
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+
+        Future<Optional<String>> load = pool.submit(() -> cache.getOrLoad("post_1", () -> {
+            loaderStarted.countDown();
+            await(release);
+            return Optional.of("read before the update");
+        }));
+        loaderStarted.await();
+        cache.put("post_1", "updated");
+        release.countDown();
+
+        assertEquals("read before the update", load.get().orElseThrow());
+        assertEquals("updated", cache.get("post_1").orElseThrow());
+        pool.shutdown();
+    }
+
+    @Test
+    void missingKeysAreCachedBriefly() throws InterruptedException {
+        SimpleCache cache = new SimpleCache(100, 4, Map.of(), Duration.ofMillis(20));
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(cache.getOrLoad("post_404", () -> {
+                loads.incrementAndGet();
+                return Optional.empty();
+            }).isEmpty());
+        }
+        assertEquals(1, loads.get());
+        assertTrue(cache.get("post_404").isEmpty());
+        assertEquals(3, cache.getStats().snapshot().get("post_").get("negativeHits"));
+
+        Thread.sleep(30);
+        assertEquals("post", cache.getOrLoad("post_404", () -> Optional.of("post")).orElseThrow());
+    }
+
+    @Test
+    void putReplacesNegativeEntry() {
+        SimpleCache cache = new SimpleCache(100, 4, Map.of());
+        cache.getOrLoad("user_9", Optional::empty);
+        cache.put("user_9", "user");
+
+        assertEquals("user", cache.getOrLoad("user_9", Optional::empty).orElseThrow());
+    }
+
+    @Test
+    void zeroNegativeTtlDisablesNegativeCaching() {
+        SimpleCache cache = new SimpleCache(100, 4, Map.of(), Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getOrLoad("post_404", () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        cache.getOrLoad("post_404", () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void serializedFormLivesWithItsEntry() {
+        SimpleCache cache = new SimpleCache(100, 4, Map.of());
+        String post = "post";
+        cache.put("post_1", post);
+        byte[] json = {'{', '}'};
+        cache.attachSerialized("post_1", post, json);
+
+        assertSame(json, cache.getSerialized("post_1").orElseThrow());
+
+        cache.put("post_1", "updated");
+        assertTrue(cache.getSerialized("post_1").isEmpty());
+        cache.attachSerialized("post_1", post, json);
+        assertTrue(cache.getSerialized("post_1").isEmpty());
+
+        cache.attachSerialized("post_1", cache.get("post_1").orElseThrow(), json);
+        cache.remove("post_1");
+        assertTrue(cache.getSerialized("post_1").isEmpty());
+    }
+
+    @Test
+    void serializedFormCountsAgainstMaximumWeight() {
+        SimpleCache cache = new SimpleCache(4, 1, Map.of());
+        String first = "first";
+        cache.put("post_1", first);
+        cache.put("post_2", "second");
+        cache.get("post_1");
+
+        // one unit for the entry plus three for 2049 bytes
+        cache.attachSerialized("post_1", first, new byte[2 * SimpleCache.SERIALIZED_BYTES_PER_WEIGHT + 1]);
+
+        assertTrue(cache.get("post_1").isPresent());
+        assertTrue(cache.get("post_2").isEmpty());
+
+        byte[] attached = cache.getSerialized("post_1").orElseThrow();
+        cache.attachSerialized("post_1", first, new byte[10 * SimpleCache.SERIALIZED_BYTES_PER_WEIGHT]);
+
+        // too heavy for the segment: the entry keeps its earlier bytes
+        assertSame(attached, cache.getSerialized("post_1").orElseThrow());
+        assertEquals(1L, cache.getStats().snapshot().get("post_").get("oversized"));
+    }
+
+    @Test
+    void valueHeavierThanASegmentIsNotCached() {
+        SimpleCache cache = new SimpleCache(8, 2, Map.of());
+        cache.put("all_users", List.of("a", "b"));
+        cache.put("post_1", "post");
+
+        cache.put("all_users", List.of("a", "b", "c", "d", "e"));
+
+        assertTrue(cache.get("all_users").isEmpty());
+        assertEquals("post", cache.get("post_1").orElseThrow());
+        Map<String, Long> counters = cache.getStats().snapshot().get("all_users");
+        assertEquals(1L, counters.get("oversized"));
+        assertEquals(0L, counters.get("evictions"));
+        assertEquals(0L, counters.get("entries"));
+    }
+
+    @Test
+    void weighSerializedRoundsUp() {
+        assertEquals(0, SimpleCache.weighSerialized(new byte[0]));
+        assertEquals(1, SimpleCache.weighSerialized(new byte[1]));
+        assertEquals(1, SimpleCache.weighSerialized(new byte[SimpleCache.SERIALIZED_BYTES_PER_WEIGHT]));
+        assertEquals(2, SimpleCache.weighSerialized(new byte[SimpleCache.SERIALIZED_BYTES_PER_WEIGHT + 1]));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.postproject.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void shedsRequestsPastTheLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 1.5);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+        assertEquals(1, limit.getRejected());
+
+        limit.release(FAST);
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void growsWhileLatencyHolds() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, 1.5);
+
+        saturate(limit, FAST, 20);
+
+        assertTrue(limit.getLimit() > 10);
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void shrinksWhenLatencyClimbs() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 1, 100, 1.5);
+        saturate(limit, FAST, 5);
+        int before = limit.getLimit();
+
+        saturate(limit, SLOW, 5);
+
+        assertTrue(limit.getLimit() < before);
+    }
+
+    @Test
+    void staysWithinBounds() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 8, 12, 1.5);
+
+        saturate(limit, FAST, 50);
+        assertEquals(12, limit.getLimit());
+
+        saturate(limit, SLOW * 10, 5);
+        assertEquals(8, limit.getLimit());
+    }
+
+    @Test
+    void idleTrafficDoesNotRaiseTheLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, 1.5);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(FAST);
+        }
+
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    void rejectsInconsistentSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(1, 2, 10, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(5, 1, 10, 0.5));
+    }
+
+    /**fill every slot, then complete them all with the given latency, rounds times.*/
+    private static void saturate(AdaptiveConcurrencyLimit limit, long rtt, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int taken = 0;
+            while (limit.tryAcquire()) {
+                taken++;
+            }
+            for (int i = 0; i < taken; i++) {
+                limit.release(rtt);
+            }
+        }
+    }
+}
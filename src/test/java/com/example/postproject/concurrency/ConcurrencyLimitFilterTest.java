@@ -0,0 +1,79 @@
+package com.example.postproject.concurrency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1, 1, 1.5);
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limit, new ObjectMapper(), true);
+
+    @Test
+    void requestOverTheLimitIsShed() throws Exception {
+        MockHttpServletRequest holding = startAsync("/posts");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(passes(new MockHttpServletRequest("GET", "/posts/1"), response));
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("Service Unavailable"));
+        assertEquals(1, limit.getRejected());
+
+        complete(holding);
+        assertTrue(passes(new MockHttpServletRequest("GET", "/posts/1"), new MockHttpServletResponse()));
+    }
+
+    @Test
+    void asyncRequestHoldsItsSlotUntilComplete() throws Exception {
+        MockHttpServletRequest request = startAsync("/posts/create");
+
+        assertEquals(1, limit.getInFlight());
+
+        complete(request);
+        assertEquals(0, limit.getInFlight());
+        assertTrue((double) limit.snapshot().get("longRttMillis") > 0);
+    }
+
+    @Test
+    void bulkTransfersAreNotSampled() throws Exception {
+        complete(startAsync("/posts/export"));
+        passes(new MockHttpServletRequest("POST", "/posts/import"), new MockHttpServletResponse());
+
+        assertEquals(0, limit.getInFlight());
+        assertEquals(0.0, limit.snapshot().get("longRttMillis"));
+    }
+
+    @Test
+    void statusIsNeverShed() throws Exception {
+        startAsync("/posts");
+
+        assertTrue(passes(new MockHttpServletRequest("GET", "/status"), new MockHttpServletResponse()));
+        assertTrue(passes(new MockHttpServletRequest("GET", "/api/stats/concurrency"), new MockHttpServletResponse()));
+    }
+
+    private MockHttpServletRequest startAsync(String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> req.startAsync(req, res));
+        assertTrue(request.isAsyncStarted());
+        return request;
+    }
+
+    private static void complete(MockHttpServletRequest request) {
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+    }
+
+    private boolean passes(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicBoolean reached = new AtomicBoolean();
+        filter.doFilter(request, response, (req, res) -> reached.set(true));
+        return reached.get();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.postproject.config;
+
+import com.example.postproject.models.ServerStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityFilterTest {
+
+    private final ServerStatus serverStatus = new ServerStatus();
+    private final AvailabilityFilter filter = new AvailabilityFilter(serverStatus);
+
+    @Test
+    void availablePassesEverything() throws Exception {
+        assertTrue(passes("GET", "/posts"));
+        assertTrue(passes("POST", "/users/create"));
+    }
+
+    @Test
+    void unavailableRejectsApiBeforeHandler() throws Exception {
+        serverStatus.setAvailable(false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(passes(new MockHttpServletRequest("GET", "/posts/1"), response));
+        assertEquals(503, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+        assertFalse(passes("DELETE", "/users/1"));
+    }
+
+    @Test
+    void unavailableMainPageIsForwarded() throws Exception {
+        serverStatus.setAvailable(false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(passes(new MockHttpServletRequest("GET", "/"), response));
+        assertEquals(AvailabilityFilter.UNAVAILABLE_PAGE, response.getForwardedUrl());
+    }
+
+    @Test
+    void statusAndStatsStayReachable() throws Exception {
+        serverStatus.setAvailable(false);
+
+        assertTrue(passes("GET", "/status"));
+        assertTrue(passes("GET", "/api/stats/requests"));
+    }
+
+    @Test
+    void drainingRejectsNewWritesOnly() throws Exception {
+        serverStatus.setState(ServerStatus.State.DRAINING);
+
+        assertTrue(passes("GET", "/posts"));
+        assertTrue(passes("HEAD", "/users/1"));
+        assertFalse(passes("POST", "/posts/create"));
+        assertFalse(passes("PUT", "/users/1"));
+    }
+
+    @Test
+    void writeIsInFlightUntilItFinishes() throws Exception {
+        AtomicInteger during = new AtomicInteger(-1);
+        filter.doFilter(new MockHttpServletRequest("POST", "/posts/create"), new MockHttpServletResponse(),
+                (req, res) -> {
+                    during.set(serverStatus.getWritesInFlight().get());
+                    serverStatus.setState(ServerStatus.State.DRAINING);
+                });
+
+        assertEquals(1, during.get());
+        assertEquals(0, serverStatus.getWritesInFlight().get());
+    }
+
+    private boolean passes(String method, String path) throws Exception {
+        return passes(new MockHttpServletRequest(method, path), new MockHttpServletResponse());
+    }
+
+    private boolean passes(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicBoolean reached = new AtomicBoolean();
+        filter.doFilter(request, response, (req, res) -> reached.set(true));
+        return reached.get();
+    }
+}
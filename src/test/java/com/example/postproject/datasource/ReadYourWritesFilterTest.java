@@ -0,0 +1,53 @@
+package com.example.postproject.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(5000);
+
+    @Test
+    void writeSticksAndSetsCookie() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(stickyDuring(new MockHttpServletRequest("POST", "/posts/create"), response));
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE);
+        assertNotNull(cookie);
+        assertTrue(Long.parseLong(cookie.getValue()) > System.currentTimeMillis());
+        assertFalse(DataSourceRoute.isSticky());
+    }
+
+    @Test
+    void readWithFreshCookieSticks() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/posts");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(System.currentTimeMillis() + 5000)));
+
+        assertTrue(stickyDuring(request, new MockHttpServletResponse()));
+    }
+
+    @Test
+    void readWithoutOrWithExpiredCookieMayUseReplicas() throws Exception {
+        assertFalse(stickyDuring(new MockHttpServletRequest("GET", "/posts"), new MockHttpServletResponse()));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/posts");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(System.currentTimeMillis() - 1)));
+        assertFalse(stickyDuring(request, new MockHttpServletResponse()));
+
+        MockHttpServletRequest garbage = new MockHttpServletRequest("GET", "/posts");
+        garbage.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, "soon"));
+        assertFalse(stickyDuring(garbage, new MockHttpServletResponse()));
+    }
+
+    private boolean stickyDuring(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicBoolean sticky = new AtomicBoolean();
+        filter.doFilter(request, response, (req, res) -> sticky.set(DataSourceRoute.isSticky()));
+        return sticky.get();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.postproject.datasource;
+
+import com.example.postproject.models.User;
+import com.example.postproject.services.UserService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(ReplicaRoutingRequestTest.ReadThenWriteController.class)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "datasource.replicas[0].url=" + ReplicaRoutingRequestTest.REPLICA_URL
+})
+class ReplicaRoutingRequestTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private HikariDataSource primaryPool;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryPool);
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        // the replica gets the primary's schema and one user of its own, so a read shows where it went
+        replica.execute("DROP ALL OBJECTS");
+        for (String statement : primary.queryForList("SCRIPT NODATA", String.class)) {
+            if (!statement.startsWith("CREATE USER")) {
+                replica.execute(statement);
+            }
+        }
+        replica.update("INSERT INTO users (id, email, password, username) VALUES (1000, 'r@example.com', 'x', 'replica')");
+        primary.update("DELETE FROM users");
+    }
+
+    @Test
+    void writeAfterAReplicaReadInTheSameRequestGoesToThePrimary() throws Exception {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/test/read-then-write?username=writer"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("1", response.body());
+        assertEquals(1, primary.queryForObject("SELECT COUNT(*) FROM users WHERE username = 'writer'", Integer.class));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM users WHERE username = 'writer'", Integer.class));
+    }
+
+    /**a GET, so the read-your-writes filter leaves the replica read alone.*/
+    @RestController
+    static class ReadThenWriteController {
+        private final UserService userService;
+
+        ReadThenWriteController(UserService userService) {
+            this.userService = userService;
+        }
+
+        @GetMapping("/test/read-then-write")
+        int readThenWrite(@RequestParam String username) {
+            int seen = userService.getUsersPage(null, 10).getItems().size();
+            User user = new User();
+            user.setUsername(username);
+            user.setEmail(username + "@example.com");
+            user.setPassword("password");
+            userService.createUser(user);
+            return seen;
+        }
+    }
+}
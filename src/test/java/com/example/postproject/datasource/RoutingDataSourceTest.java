@@ -0,0 +1,86 @@
+package com.example.postproject.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutingDataSourceTest {
+
+    private final RoutingDataSource dataSource = new RoutingDataSource(h2("primary"),
+            List.of(h2("replica1"), h2("replica2")));
+
+    @AfterEach
+    void tearDown() {
+        DataSourceRoute.exitReplicaRead();
+        DataSourceRoute.unstick();
+    }
+
+    @Test
+    void ordinaryConnectionsGoToPrimary() throws SQLException {
+        assertEquals("primary", database());
+    }
+
+    @Test
+    void replicaReadsTakeReplicasInTurn() throws SQLException {
+        DataSourceRoute.enterReplicaRead();
+
+        assertEquals("replica1", database());
+        assertEquals("replica2", database());
+        assertEquals("replica1", database());
+    }
+
+    @Test
+    void stickyClientReadsItsWritesFromPrimary() throws SQLException {
+        DataSourceRoute.enterReplicaRead();
+        DataSourceRoute.stickToPrimary();
+
+        assertEquals("primary", database());
+    }
+
+    @Test
+    void stickinessFollowsWorkToAnotherThread() throws Exception {
+        DataSourceRoute.stickToPrimary();
+        Supplier<String> work = DataSourceRoute.propagate(() -> {
+            DataSourceRoute.enterReplicaRead();
+            try {
+                return database();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                DataSourceRoute.exitReplicaRead();
+            }
+        });
+
+        assertEquals("primary", CompletableFuture.supplyAsync(work).get());
+    }
+
+    @Test
+    void withoutReplicasEverythingGoesToPrimary() throws SQLException {
+        RoutingDataSource single = new RoutingDataSource(h2("primary"), List.of());
+        DataSourceRoute.enterReplicaRead();
+
+        try (Connection connection = single.getConnection()) {
+            assertTrue(connection.getMetaData().getURL().contains(":primary"));
+        }
+    }
+
+    private String database() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            String url = connection.getMetaData().getURL();
+            return url.substring(url.lastIndexOf(':') + 1);
+        }
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name, "sa", "");
+    }
+}
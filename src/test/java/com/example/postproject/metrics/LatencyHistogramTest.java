@@ -0,0 +1,47 @@
+package com.example.postproject.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    private static final long NOW = 1_000 * LatencyHistogram.SLOT_MILLIS;
+
+    @Test
+    void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(i), NOW);
+        }
+
+        Map<String, Number> summary = histogram.summary(60, NOW);
+        assertEquals(1000L, summary.get("count"));
+        assertEquals(500, summary.get("p50").doubleValue(), 500 * 0.07);
+        assertEquals(990, summary.get("p99").doubleValue(), 990 * 0.07);
+        assertEquals(1000.0, summary.get("max"));
+    }
+
+    @Test
+    void oldSlotsLeaveTheWindow() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5), NOW);
+        long twoMinutesLater = NOW + 120_000;
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1), twoMinutesLater);
+
+        assertEquals(1L, histogram.summary(60, twoMinutesLater).get("count"));
+        assertEquals(2L, histogram.summary(300, twoMinutesLater).get("count"));
+    }
+
+    @Test
+    void bucketsCoverTheirValues() {
+        for (long micros : new long[] {0, 31, 32, 33, 1_000, 123_456, 60_000_000}) {
+            int bucket = LatencyHistogram.bucketOf(micros);
+            assertTrue(LatencyHistogram.highestValueOf(bucket) >= micros);
+            assertTrue(bucket == 0 || LatencyHistogram.highestValueOf(bucket - 1) < micros);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.postproject.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+
+    @Test
+    void rateCountsCompletedSeconds() {
+        SlidingWindowCounter counter = new SlidingWindowCounter();
+        counter.increment(1_000);
+        counter.increment(1_000);
+        counter.increment(1_059);
+        counter.increment(1_060);
+
+        assertEquals(1.0, counter.rate(1, 1_060));
+        assertEquals(3.0 / 60, counter.rate(60, 1_060));
+        assertEquals(2.0 / 60, counter.rate(60, 1_061));
+    }
+
+    @Test
+    void oldSecondsFallOutOfTheWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter();
+        counter.increment(1_000);
+        counter.increment(1_000 + SlidingWindowCounter.WINDOW_SECONDS + 1);
+
+        assertEquals(0.0, counter.rate(SlidingWindowCounter.WINDOW_SECONDS, 1_000 + SlidingWindowCounter.WINDOW_SECONDS + 1));
+    }
+}
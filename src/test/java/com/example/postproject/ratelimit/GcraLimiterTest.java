@@ -0,0 +1,91 @@
+package com.example.postproject.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GcraLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+
+    @Test
+    void burstPassesThenRateApplies() {
+        GcraLimiter limiter = new GcraLimiter(10, 3, now::get);
+
+        assertEquals(0, limiter.acquire("a"));
+        assertEquals(0, limiter.acquire("a"));
+        assertEquals(0, limiter.acquire("a"));
+        assertEquals(SECOND / 10, limiter.acquire("a"));
+
+        now.addAndGet(SECOND / 10);
+        assertEquals(0, limiter.acquire("a"));
+        assertTrue(limiter.acquire("a") > 0);
+    }
+
+    @Test
+    void peekDoesNotSpendAndRefundGivesBack() {
+        GcraLimiter limiter = new GcraLimiter(1, 1, now::get);
+
+        assertEquals(0, limiter.peek("a"));
+        assertEquals(0, limiter.peek("a"));
+        assertEquals(0, limiter.acquire("a"));
+        assertEquals(SECOND, limiter.peek("a"));
+
+        limiter.refund("a");
+        assertEquals(0, limiter.peek("a"));
+        assertEquals(0, limiter.acquire("a"));
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        GcraLimiter limiter = new GcraLimiter(1, 1, now::get);
+
+        assertEquals(0, limiter.acquire("a"));
+        assertTrue(limiter.acquire("a") > 0);
+        assertEquals(0, limiter.acquire("b"));
+    }
+
+    @Test
+    void rejectedRequestsDoNotUseTheBudget() {
+        GcraLimiter limiter = new GcraLimiter(1, 1, now::get);
+        limiter.acquire("a");
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire("a");
+        }
+
+        now.addAndGet(SECOND);
+        assertEquals(0, limiter.acquire("a"));
+    }
+
+    @Test
+    void concurrentCallersGetExactlyTheBurst() throws InterruptedException {
+        GcraLimiter limiter = new GcraLimiter(1, 100, now::get);
+        AtomicInteger passed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            pool.execute(() -> {
+                if (limiter.acquire("a") == 0) {
+                    passed.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, passed.get());
+    }
+
+    @Test
+    void rejectsNonsenseLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new GcraLimiter(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new GcraLimiter(1, 0));
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.postproject.ratelimit;
+
+import com.example.postproject.exceptions.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitInterceptorTest {
+
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor(true, 1, 5,
+            List.of(new RouteLimit("POST /posts/bulk-create", 1, 1)), "trusted");
+
+    @Test
+    void expensiveRouteHasItsOwnBudget() {
+        assertTrue(handle(request("POST", "/posts/bulk-create", "10.0.0.1")));
+
+        TooManyRequestsException rejected = assertThrows(TooManyRequestsException.class,
+                () -> handle(request("POST", "/posts/bulk-create", "10.0.0.1")));
+        assertEquals(1, rejected.getRetryAfterSeconds());
+        assertTrue(handle(request("GET", "/posts", "10.0.0.1")));
+    }
+
+    @Test
+    void generalRejectionKeepsTheRouteBudget() {
+        AtomicLong now = new AtomicLong();
+        RateLimitInterceptor slowRoute = new RateLimitInterceptor(true, 1, 5,
+                List.of(new RouteLimit("POST /posts/bulk-create", 0.1, 1)), "", now::get);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(slowRoute.preHandle(request("GET", "/posts", "10.0.0.1"), new MockHttpServletResponse(), null));
+        }
+        for (int i = 0; i < 2; i++) {
+            assertThrows(TooManyRequestsException.class, () -> slowRoute.preHandle(
+                    request("POST", "/posts/bulk-create", "10.0.0.1"), new MockHttpServletResponse(), null));
+        }
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertTrue(slowRoute.preHandle(request("POST", "/posts/bulk-create", "10.0.0.1"),
+                new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void routeRejectionKeepsTheGeneralBudget() {
+        assertTrue(handle(request("POST", "/posts/bulk-create", "10.0.0.1")));
+        for (int i = 0; i < 3; i++) {
+            assertThrows(TooManyRequestsException.class,
+                    () -> handle(request("POST", "/posts/bulk-create", "10.0.0.1")));
+        }
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(handle(request("GET", "/posts", "10.0.0.1")));
+        }
+    }
+
+    @Test
+    void clientsAreLimitedSeparately() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(handle(request("GET", "/posts", "10.0.0.1")));
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> handle(request("GET", "/posts", "10.0.0.1")));
+        assertTrue(handle(request("GET", "/posts", "10.0.0.2")));
+    }
+
+    @Test
+    void onlyListedApiKeysIdentifyAClient() {
+        for (int i = 0; i < 5; i++) {
+            handle(request("GET", "/posts", "10.0.0.1"));
+        }
+        MockHttpServletRequest trusted = request("GET", "/posts", "10.0.0.1");
+        trusted.addHeader(RateLimitInterceptor.API_KEY_HEADER, "trusted");
+        MockHttpServletRequest rotated = request("GET", "/posts", "10.0.0.1");
+        rotated.addHeader(RateLimitInterceptor.API_KEY_HEADER, "made-up");
+
+        assertTrue(handle(trusted));
+        assertThrows(TooManyRequestsException.class, () -> handle(rotated));
+    }
+
+    @Test
+    void disabledLimiterLetsEverythingThrough() {
+        RateLimitInterceptor disabled = new RateLimitInterceptor(false, 1, 1, List.of(), "");
+        for (int i = 0; i < 10; i++) {
+            assertTrue(disabled.preHandle(request("GET", "/posts", "10.0.0.1"), new MockHttpServletResponse(), null));
+        }
+    }
+
+    private boolean handle(MockHttpServletRequest request) {
+        return interceptor.preHandle(request, new MockHttpServletResponse(), null);
+    }
+
+    private static MockHttpServletRequest request(String method, String pattern, String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        request.setRemoteAddr(address);
+        return request;
+    }
+}
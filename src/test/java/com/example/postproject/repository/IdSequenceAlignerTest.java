@@ -0,0 +1,55 @@
+package com.example.postproject.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(IdSequenceAligner.class)
+@TestPropertySource(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // ALTER SEQUENCE commits on H2, so nothing to roll back
+class IdSequenceAlignerTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdSequenceAligner aligner;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'legacy%'");
+    }
+
+    @Test
+    void movesSequencePastRowsItDidNotHandOut() {
+        insertLegacyUser(100_000);
+
+        aligner.alignSequences();
+
+        assertTrue(aligner.nextValue("H2", "users_seq") - IdSequenceAligner.ALLOCATION_SIZE >= 100_000);
+    }
+
+    @Test
+    void neverMovesSequenceBack() {
+        jdbcTemplate.execute("ALTER SEQUENCE users_seq RESTART WITH 300000");
+        insertLegacyUser(7);
+
+        aligner.alignSequences();
+
+        assertEquals(300_000, aligner.nextValue("H2", "users_seq"));
+    }
+
+    private void insertLegacyUser(long id) {
+        jdbcTemplate.update("INSERT INTO users (id, email, password, username) VALUES (?, ?, ?, ?)",
+                id, "legacy" + id + "@example.com", "password", "legacy" + id);
+    }
+}
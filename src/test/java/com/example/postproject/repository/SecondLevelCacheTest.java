@@ -0,0 +1,94 @@
+package com.example.postproject.repository;
+
+import com.example.postproject.models.Post;
+import com.example.postproject.models.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+// rows inserted by a transaction stay locked in READ_WRITE regions until it commits,
+// so the test data is committed and every load runs in a transaction of its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Statistics statistics;
+    private String username;
+    private Long userId;
+    private Long postId;
+
+    @BeforeEach
+    void setUp() {
+        // regions outlive the test, so every test gets its own username
+        username = "reader-" + UUID.randomUUID();
+        User user = new User();
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setUsername(username);
+        userId = userRepository.save(user).getId();
+        Post post = new Post();
+        post.setUser(user);
+        post.setTitle("Title");
+        post.setText("Text");
+        postId = postRepository.save(post).getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        postRepository.deleteById(postId);
+        userRepository.deleteById(userId);
+    }
+
+    @Test
+    void postAndAuthorComeFromRegionsAfterFirstLoad() {
+        postRepository.findById(postId).orElseThrow();
+        statistics.clear();
+
+        Post post = postRepository.findById(postId).orElseThrow();
+
+        assertEquals(username, post.getUser().getUsername());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 2);
+    }
+
+    @Test
+    void usernameResolvesThroughNaturalIdRegion() {
+        userRepository.findByUsername(username).orElseThrow();
+        statistics.clear();
+
+        assertEquals(userId, userRepository.findByUsername(username).orElseThrow().getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+    }
+
+    @Test
+    void unknownUsernameIsEmpty() {
+        assertTrue(userRepository.findByUsername("nobody-" + UUID.randomUUID()).isEmpty());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.postproject.repository;
+
+import com.example.postproject.models.Post;
+import com.example.postproject.models.TimelineCursor;
+import com.example.postproject.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class TimelinePagingTest {
+    private static final LocalDateTime NOON = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    private final List<Post> newestFirst = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User author = persistUser("pager");
+        User other = persistUser("bystander");
+        // two posts share a date, so the id has to break the tie
+        persistPost(author, NOON.minusHours(1));
+        persistPost(author, NOON);
+        persistPost(author, NOON);
+        persistPost(other, NOON.minusMinutes(30));
+        persistPost(author, NOON.plusHours(1));
+        entityManager.flush();
+        entityManager.clear();
+        newestFirst.addAll(postRepository.findTimeline("pager", Limit.of(10)));
+    }
+
+    @Test
+    void pagesThroughEqualDatesWithoutGapsOrRepeats() {
+        assertEquals(4, newestFirst.size());
+        List<Long> seen = new ArrayList<>();
+        TimelineCursor cursor = TimelineCursor.after(newestFirst.get(0));
+        seen.add(newestFirst.get(0).getId());
+        while (true) {
+            List<Post> page = postRepository.findTimelineBefore("pager", cursor.publishingDate(), cursor.id(),
+                    Limit.of(1));
+            if (page.isEmpty()) {
+                break;
+            }
+            seen.add(page.get(0).getId());
+            cursor = TimelineCursor.after(page.get(0));
+        }
+
+        assertEquals(newestFirst.stream().map(Post::getId).toList(), seen);
+    }
+
+    @Test
+    void deletedCursorPostDoesNotEndPaging() {
+        TimelineCursor cursor = TimelineCursor.decode(TimelineCursor.after(newestFirst.get(1)).encode());
+        postRepository.deleteById(newestFirst.get(1).getId());
+        entityManager.flush();
+
+        List<Post> page = postRepository.findTimelineBefore("pager", cursor.publishingDate(), cursor.id(),
+                Limit.of(10));
+
+        assertEquals(List.of(newestFirst.get(2).getId(), newestFirst.get(3).getId()),
+                page.stream().map(Post::getId).toList());
+    }
+
+    private User persistUser(String username) {
+        User user = new User();
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setUsername(username);
+        return entityManager.persist(user);
+    }
+
+    private void persistPost(User user, LocalDateTime publishingDate) {
+        Post post = new Post();
+        post.setUser(user);
+        post.setTitle("Title");
+        post.setText("Text");
+        post.setPublishingDate(publishingDate);
+        entityManager.persist(post);
+    }
+}
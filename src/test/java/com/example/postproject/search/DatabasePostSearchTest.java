@@ -0,0 +1,69 @@
+package com.example.postproject.search;
+
+import com.example.postproject.models.Post;
+import com.example.postproject.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(DatabasePostSearch.class)
+@TestPropertySource(properties = {
+    "search.backend=postgres",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+class DatabasePostSearchTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DatabasePostSearch postSearch;
+
+    private final long[] ids = new long[3];
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("search@example.com");
+        user.setPassword("password");
+        user.setUsername("searcher");
+        entityManager.persist(user);
+        ids[0] = persist(user, "Spring Boot", "caching with Spring");
+        ids[1] = persist(user, "Spring", "transactions");
+        ids[2] = persist(user, "Gradle", "Boot builds");
+        entityManager.flush();
+    }
+
+    @Test
+    void andFallbackMatchesEveryWordInTitleOrText() {
+        assertEquals(List.of(ids[2], ids[0]), postIds(postSearch.search("boot", SearchMode.AND, 0, 10)));
+        assertEquals(List.of(ids[0]), postIds(postSearch.search("spring caching", SearchMode.AND, 0, 10)));
+    }
+
+    @Test
+    void orFallbackPagesNewestFirst() {
+        assertEquals(List.of(ids[2], ids[1]), postIds(postSearch.search("spring gradle", SearchMode.OR, 0, 2)));
+        assertEquals(List.of(ids[0]), postIds(postSearch.search("spring gradle", SearchMode.OR, 2, 2)));
+    }
+
+    private long persist(User user, String title, String text) {
+        Post post = new Post();
+        post.setUser(user);
+        post.setTitle(title);
+        post.setText(text);
+        return entityManager.persist(post).getId();
+    }
+
+    private static List<Long> postIds(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::postId).toList();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.postproject.search;
+
+import com.example.postproject.models.Post;
+import com.example.postproject.repository.PostRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PostSearchIndexTest {
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final PostSearchIndex index = new PostSearchIndex(postRepository);
+
+    @Test
+    void andRequiresEveryWord() {
+        index.index(post(1L, "Spring Boot", "caching with spring"));
+        index.index(post(2L, "Spring", "transactions"));
+        index.index(post(3L, "Boot", "gradle"));
+
+        assertEquals(List.of(1L), ids(index.search("spring boot", SearchMode.AND, 10)));
+        assertTrue(index.search("spring kafka", SearchMode.AND, 10).isEmpty());
+    }
+
+    @Test
+    void orRanksPostsMatchingMoreWordsHigher() {
+        index.index(post(1L, "Spring", "transactions"));
+        index.index(post(2L, "Spring Boot", "caching"));
+        index.index(post(3L, "Boot", "gradle"));
+
+        assertEquals(List.of(2L, 3L, 1L), ids(index.search("boot spring", SearchMode.OR, 10)));
+    }
+
+    @Test
+    void titleWeighsMoreThanText() {
+        index.index(post(1L, "Notes", "postgres tuning"));
+        index.index(post(2L, "Postgres", "tuning notes"));
+
+        assertEquals(2L, index.search("postgres", SearchMode.OR, 10).get(0).postId());
+    }
+
+    @Test
+    void keepsOnlyTopK() {
+        for (long id = 1; id <= 50; id++) {
+            index.index(post(id, "Post " + id, id % 5 == 0 ? "java java java" : "java"));
+        }
+
+        List<SearchHit> hits = index.search("java", SearchMode.AND, 3);
+
+        assertEquals(3, hits.size());
+        assertEquals(List.of(50L, 45L, 40L), ids(hits));
+        assertTrue(hits.get(0).score() >= hits.get(2).score());
+    }
+
+    @Test
+    void pagesThroughRankedHits() {
+        for (long id = 1; id <= 5; id++) {
+            index.index(post(id, "Post", "java"));
+        }
+
+        assertEquals(List.of(3L, 2L), ids(index.search("java", SearchMode.AND, 2, 2)));
+        assertTrue(index.search("java", SearchMode.AND, 5, 2).isEmpty());
+    }
+
+    @Test
+    void reindexAndRemoveUpdatePostings() {
+        index.index(post(1L, "Old title", "old text"));
+        index.index(post(1L, "New title", "new text"));
+        index.index(post(2L, "Other", "old"));
+
+        assertEquals(List.of(2L), ids(index.search("old", SearchMode.AND, 10)));
+        assertEquals(List.of(1L), ids(index.search("new", SearchMode.AND, 10)));
+
+        index.remove(1L);
+
+        assertTrue(index.search("new", SearchMode.AND, 10).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void tokenizesUnicodeCaseInsensitively() {
+        index.index(post(1L, "Привет, Мир!", "hello-world 2024"));
+
+        assertEquals(List.of(1L), ids(index.search("мир", SearchMode.AND, 10)));
+        assertEquals(List.of(1L), ids(index.search("WORLD 2024", SearchMode.AND, 10)));
+        assertTrue(index.search("  !! ", SearchMode.OR, 10).isEmpty());
+    }
+
+    @Test
+    void rebuildLoadsEveryPost() {
+        index.index(post(9L, "stale", "stale"));
+        when(postRepository.streamTexts()).thenReturn(Stream.of(text(1L, "First", "alpha"), text(2L, "Second", "beta")));
+
+        index.rebuild();
+
+        assertEquals(2, index.size());
+        assertTrue(index.search("stale", SearchMode.OR, 10).isEmpty());
+        assertEquals(List.of(2L), ids(index.search("beta", SearchMode.OR, 10)));
+    }
+
+    private static Post post(Long id, String title, String text) {
+        Post post = new Post();
+        post.setId(id);
+        post.setTitle(title);
+        post.setText(text);
+        return post;
+    }
+
+    private static PostRepository.PostText text(Long id, String title, String text) {
+        return new PostRepository.PostText() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public String getText() {
+                return text;
+            }
+        };
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::postId).toList();
+    }
+}
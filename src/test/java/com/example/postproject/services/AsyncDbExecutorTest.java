@@ -0,0 +1,63 @@
+package com.example.postproject.services;
+
+import com.example.postproject.exceptions.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncDbExecutorTest {
+
+    @Test
+    void runsWork() throws Exception {
+        AsyncDbExecutor executor = new AsyncDbExecutor(1, 1, Duration.ofSeconds(1), false);
+
+        assertEquals("done", executor.submit(() -> "done").get());
+        executor.shutdown();
+    }
+
+    @Test
+    void timeoutIsServiceUnavailable() {
+        AsyncDbExecutor executor = new AsyncDbExecutor(1, 1, Duration.ofMillis(10), false);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> slow = executor.submit(() -> {
+            await(release);
+            return "late";
+        });
+
+        ExecutionException failure = assertThrows(ExecutionException.class, slow::get);
+        assertInstanceOf(ServiceUnavailableException.class, failure.getCause());
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void fullQueueIsServiceUnavailable() {
+        AsyncDbExecutor executor = new AsyncDbExecutor(1, 1, Duration.ofSeconds(5), false);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> await(release));
+        executor.submit(() -> await(release));
+
+        CompletableFuture<Boolean> rejected = executor.submit(() -> true);
+
+        ExecutionException failure = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(ServiceUnavailableException.class, failure.getCause());
+        release.countDown();
+        executor.shutdown();
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
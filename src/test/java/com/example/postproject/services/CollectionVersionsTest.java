@@ -0,0 +1,92 @@
+package com.example.postproject.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CollectionVersionsTest {
+
+    private static final Duration MAX_STALENESS = Duration.ofSeconds(10);
+
+    @Test
+    void tagChangesOnlyWithItsCollection() {
+        CollectionVersions versions = at(Instant.EPOCH);
+        String posts = versions.postsETag();
+        String users = versions.usersETag();
+
+        assertEquals(posts, versions.postsETag());
+        versions.postsChanged();
+
+        assertNotEquals(posts, versions.postsETag());
+        assertEquals(users, versions.usersETag());
+    }
+
+    @Test
+    void userChangesInvalidatePostsToo() {
+        CollectionVersions versions = at(Instant.EPOCH);
+        String posts = versions.postsETag();
+        String users = versions.usersETag();
+
+        versions.usersChanged();
+
+        assertNotEquals(posts, versions.postsETag());
+        assertNotEquals(users, versions.usersETag());
+    }
+
+    @Test
+    void instancesDoNotShareTags() {
+        assertNotEquals(at(Instant.EPOCH).postsETag(), at(Instant.EPOCH).postsETag());
+    }
+
+    @Test
+    void tagsAreQuotedWeakValidators() {
+        assertTrue(at(Instant.EPOCH).postsETag().matches("W/\"posts-[0-9a-z]+-0-0\""));
+    }
+
+    @Test
+    void tagsExpireAfterMaxStaleness() {
+        MutableClock clock = new MutableClock();
+        CollectionVersions versions = new CollectionVersions(MAX_STALENESS, clock);
+        String posts = versions.postsETag();
+
+        clock.now = clock.now.plus(MAX_STALENESS).minusMillis(1);
+        assertEquals(posts, versions.postsETag());
+
+        clock.now = clock.now.plusMillis(1);
+        assertNotEquals(posts, versions.postsETag());
+    }
+
+    @Test
+    void rejectsZeroStaleness() {
+        assertThrows(IllegalArgumentException.class, () -> new CollectionVersions(Duration.ZERO));
+    }
+
+    private static CollectionVersions at(Instant now) {
+        return new CollectionVersions(MAX_STALENESS, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.EPOCH;
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
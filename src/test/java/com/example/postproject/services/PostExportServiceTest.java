@@ -0,0 +1,145 @@
+package com.example.postproject.services;
+
+import com.example.postproject.models.Post;
+import com.example.postproject.models.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({PostExportService.class, JacksonAutoConfiguration.class})
+@TestPropertySource(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class PostExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PostExportService postExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> postIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int u = 0; u < 2; u++) {
+            User user = new User();
+            user.setEmail("exporter" + u + "@example.com");
+            user.setPassword("password");
+            user.setUsername("exporter" + u);
+            entityManager.persist(user);
+            for (int p = 0; p < 2; p++) {
+                Post post = new Post();
+                post.setUser(user);
+                post.setTitle("Title " + u + p);
+                post.setText("Text " + u + p);
+                entityManager.persist(post);
+                postIds.add(post.getId());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void writesOnePostPerLineInIdOrder() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(4, postExportService.exportPosts(out));
+
+        // every author has two posts, so the second one is read after the author was detached
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode post = objectMapper.readTree(lines[i]);
+            assertEquals(postIds.get(i), post.get("id").asLong());
+            assertEquals("exporter" + i / 2, post.get("user").get("username").asText());
+            assertFalse(post.get("user").has("posts"));
+        }
+    }
+
+    @Test
+    void leavesNothingInThePersistenceContext() throws Exception {
+        postExportService.exportPosts(new ByteArrayOutputStream());
+
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+        assertEquals(0, session.getStatistics().getEntityCount());
+    }
+
+    @Test
+    void doesNotFillTheSecondLevelCache() throws Exception {
+        // rows inserted by the test transaction itself are never put into READ_WRITE regions
+        TransactionTemplate committed = new TransactionTemplate(transactionManager);
+        committed.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Long postId = committed.execute(status -> {
+            User user = new User();
+            user.setEmail("committed@example.com");
+            user.setPassword("password");
+            user.setUsername("committed");
+            entityManager.getEntityManager().persist(user);
+            Post post = new Post();
+            post.setUser(user);
+            post.setTitle("Committed");
+            post.setText("Committed");
+            entityManager.getEntityManager().persist(post);
+            return post.getId();
+        });
+        try {
+            entityManagerFactory.getCache().evictAll();
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            postExportService.exportPosts(new ByteArrayOutputStream());
+
+            assertEquals(0, statistics.getSecondLevelCachePutCount());
+        } finally {
+            committed.executeWithoutResult(status -> {
+                entityManager.getEntityManager().createQuery("DELETE FROM Post p WHERE p.id = :id")
+                        .setParameter("id", postId).executeUpdate();
+                entityManager.getEntityManager().createQuery("DELETE FROM User u WHERE u.username = 'committed'")
+                        .executeUpdate();
+            });
+        }
+    }
+
+    @Test
+    void emptyTableWritesNothing() throws Exception {
+        entityManager.getEntityManager().createQuery("DELETE FROM Post").executeUpdate();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, postExportService.exportPosts(out));
+        assertEquals(0, out.size());
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.postproject.services;
+
+import com.example.postproject.exceptions.InternalServerErrorException;
+import com.example.postproject.models.ImportSummary;
+import com.example.postproject.models.Post;
+import com.example.postproject.models.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostImportServiceTest {
+
+    @Mock
+    private PostService postService;
+
+    private final User user = new User();
+    private final List<List<String>> chunks = new ArrayList<>();
+    private PostImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        user.setUsername("importer");
+        importService = new PostImportService(postService, new ObjectMapper(), 2);
+    }
+
+    @Test
+    void storesNdjsonInChunks() throws Exception {
+        storeEverything();
+
+        ImportSummary summary = importPosts(post("a") + "\n" + post("b") + "\n" + post("c") + "\n"
+                + post("d") + "\n" + post("e") + "\n");
+
+        assertEquals(5, summary.getAccepted());
+        assertEquals(0, summary.getRejected());
+        assertNull(summary.getParseError());
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d"), List.of("e")), chunks);
+    }
+
+    @Test
+    void storesJsonArray() throws Exception {
+        storeEverything();
+
+        ImportSummary summary = importPosts("[" + post("a") + "," + post("b") + "," + post("c") + "]");
+
+        assertEquals(3, summary.getAccepted());
+        assertEquals(List.of(List.of("a", "b"), List.of("c")), chunks);
+    }
+
+    @Test
+    void badRecordsAreCountedAndSkipped() throws Exception {
+        storeEverything();
+
+        ImportSummary summary = importPosts(post("a") + "\n{\"title\":\"no text\"}\n42\n" + post("b") + "\n");
+
+        assertEquals(2, summary.getAccepted());
+        assertEquals(2, summary.getRejected());
+        assertEquals(List.of(List.of("a", "b")), chunks);
+        assertTrue(summary.getErrors().get(0).startsWith("record 2:"));
+        assertTrue(summary.getErrors().get(1).startsWith("record 3:"));
+    }
+
+    @Test
+    void failedChunkIsRejectedWhole() throws Exception {
+        when(postService.bulkCreatePosts(anyList(), eq(user)))
+                .thenThrow(new InternalServerErrorException("db down"))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.<List<Post>>getArgument(0)));
+
+        ImportSummary summary = importPosts(post("a") + "\n" + post("b") + "\n" + post("c") + "\n");
+
+        assertEquals(1, summary.getAccepted());
+        assertEquals(2, summary.getRejected());
+        assertTrue(summary.getErrors().get(0).contains("chunk of 2 posts failed"));
+    }
+
+    @Test
+    void keepsOnlyTheFirstHundredErrors() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 150; i++) {
+            body.append("{\"title\":\"\"}\n");
+        }
+
+        ImportSummary summary = importPosts(body.toString());
+
+        assertEquals(150, summary.getRejected());
+        assertEquals(100, summary.getErrors().size());
+        verifyNoInteractions(postService);
+    }
+
+    @Test
+    void malformedJsonStopsWithItsLocation() throws Exception {
+        storeEverything();
+
+        ImportSummary summary = importPosts(post("a") + "\n" + post("b") + "\n" + post("c") + "\n{\"title\": oops}\n"
+                + post("d") + "\n");
+
+        assertEquals(3, summary.getAccepted());
+        assertEquals(List.of(List.of("a", "b"), List.of("c")), chunks);
+        String error = summary.getParseError();
+        assertNotNull(error);
+        assertTrue(error.contains("line 4"), error);
+        assertTrue(error.contains("after record 3"), error);
+        assertTrue(error.contains("3 posts committed"), error);
+    }
+
+    private void storeEverything() {
+        when(postService.bulkCreatePosts(anyList(), eq(user))).thenAnswer(invocation -> {
+            List<Post> posts = invocation.getArgument(0);
+            chunks.add(posts.stream().map(Post::getTitle).toList());
+            return new ArrayList<>(posts);
+        });
+    }
+
+    private ImportSummary importPosts(String body) throws Exception {
+        return importService.importPosts(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), user);
+    }
+
+    private static String post(String title) {
+        return "{\"title\":\"" + title + "\",\"text\":\"text of " + title + "\"}";
+    }
+}
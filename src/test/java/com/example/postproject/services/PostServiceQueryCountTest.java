@@ -0,0 +1,94 @@
+package com.example.postproject.services;
+
+import com.example.postproject.cache.SimpleCache;
+import com.example.postproject.models.Post;
+import com.example.postproject.models.User;
+import com.example.postproject.search.PostSearchIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({PostService.class, SimpleCache.class, PostBatchWriter.class, PostSearchIndex.class,
+    CollectionVersions.class, PostWriteBehind.class, JacksonAutoConfiguration.class})
+@TestPropertySource(properties = {
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class PostServiceQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PostService postService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int u = 0; u < 3; u++) {
+            User user = new User();
+            user.setEmail("author" + u + "@example.com");
+            user.setPassword("password");
+            user.setUsername("author" + u);
+            entityManager.persist(user);
+            for (int p = 0; p < 2; p++) {
+                Post post = new Post();
+                post.setUser(user);
+                post.setTitle("Title " + p);
+                post.setText("Text " + p);
+                entityManager.persist(post);
+            }
+        }
+        // an empty persistence context, otherwise authors come from it and N+1 stays invisible
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllPostsIsOneQuery() {
+        List<Post> posts = postService.getAllPosts();
+
+        assertEquals(6, posts.size());
+        posts.forEach(post -> assertNotNull(post.getUser().getUsername()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getPostsPageIsOneQuery() {
+        assertEquals(4, postService.getPostsPage(null, 4).getItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getPostsByUsernameIsOneQuery() {
+        List<Post> posts = postService.getPostsByUsername("author1");
+
+        assertEquals(2, posts.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getUserTimelineIsOneQuery() {
+        assertEquals(2, postService.getUserTimeline("author2", null, 50).getItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -1,23 +1,36 @@
 package com.example.postproject.services;
 
 import com.example.postproject.cache.SimpleCache;
+import com.example.postproject.exceptions.BadRequestException;
+import com.example.postproject.models.CursorPage;
 import com.example.postproject.models.Post;
+import com.example.postproject.models.TimelineCursor;
 import com.example.postproject.models.User;
 import com.example.postproject.repository.PostRepository;
+import com.example.postproject.search.PostSearch;
+import com.example.postproject.search.SearchHit;
+import com.example.postproject.search.SearchMode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.stubbing.Answer;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +42,21 @@ class PostServiceTest {
     @Mock
     private SimpleCache cache;
 
+    @Mock
+    private PostBatchWriter postBatchWriter;
+
+    @Mock
+    private PostSearch postSearch;
+
+    @Mock
+    private CollectionVersions collectionVersions;
+
+    @Mock
+    private ObjectMapper objectMapper;
+
+    @Mock
+    private PostWriteBehind postWriteBehind;
+
     @Mock
     private Post mockPost;
 
@@ -40,13 +68,13 @@ class PostServiceTest {
 
     @BeforeEach
     void setUp() {
-        when(mockUser.getId()).thenReturn(1L);
-        when(mockUser.getUsername()).thenReturn("testuser");
+        lenient().when(mockUser.getId()).thenReturn(1L);
+        lenient().when(mockUser.getUsername()).thenReturn("testuser");
 
-        when(mockPost.getId()).thenReturn(1L);
-        when(mockPost.getTitle()).thenReturn("Test Title");
-        when(mockPost.getText()).thenReturn("Test Content");
-        when(mockPost.getUser()).thenReturn(mockUser);
+        lenient().when(mockPost.getId()).thenReturn(1L);
+        lenient().when(mockPost.getTitle()).thenReturn("Test Title");
+        lenient().when(mockPost.getText()).thenReturn("Test Content");
+        lenient().when(mockPost.getUser()).thenReturn(mockUser);
     }
 
     @Test
@@ -58,43 +86,153 @@ class PostServiceTest {
         assertNotNull(result);
         assertEquals(mockPost.getId(), result.getId());
         verify(postRepository).save(mockPost);
+        verify(cache).remove("post_1");
         verify(cache).remove("user_posts_testuser");
+        verify(postSearch).index(mockPost);
+        verify(collectionVersions).postsChanged();
     }
 
     @Test
     void bulkCreatePosts() {
         List<Post> posts = Arrays.asList(mockPost);
-        when(postRepository.save(any(Post.class))).thenReturn(mockPost);
+        when(postBatchWriter.insertAll(posts)).thenReturn(posts);
 
         List<Post> result = postService.bulkCreatePosts(posts, mockUser);
 
         assertEquals(1, result.size());
-        verify(postRepository).save(mockPost);
+        verify(postBatchWriter).insertAll(posts);
+        verify(postRepository, never()).save(any(Post.class));
         verify(cache).remove("user_posts_testuser");
     }
 
+    @Test
+    void getPostsPage() {
+        Post next = mock(Post.class);
+        when(postRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(Arrays.asList(mockPost, next));
+
+        CursorPage<Post, Long> page = postService.getPostsPage(null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(1L, page.getNextCursor());
+        verify(postRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2));
+    }
+
+    @Test
+    void getPostsPageRejectsHugeLimit() {
+        assertThrows(BadRequestException.class, () -> postService.getPostsPage(null, 10_000));
+    }
+
     @Test
     void getPostById() {
-        when(cache.get("post_1")).thenReturn(Optional.empty());
+        when(cache.getOrLoad(eq("post_1"), any())).thenAnswer(runLoader());
         when(postRepository.findById(1L)).thenReturn(Optional.of(mockPost));
 
         Optional<Post> result = postService.getPostById(1L);
 
         assertTrue(result.isPresent());
         assertEquals(mockPost.getId(), result.get().getId());
-        verify(cache).put("post_1", mockPost);
+        verify(postRepository).findById(1L);
     }
 
     @Test
     void getPostsByUsername() {
-        List<Post> cachedPosts = Arrays.asList(mockPost);
-        when(cache.get("user_posts_testuser")).thenReturn(Optional.of(cachedPosts));
+        when(postRepository.findPostsByUsername("testuser")).thenReturn(Arrays.asList(mockPost));
 
         List<Post> result = postService.getPostsByUsername("testuser");
 
         assertEquals(1, result.size());
-        verify(cache).get("user_posts_testuser");
-        verify(postRepository, never()).findPostsByUsername(anyString());
+        verify(cache, never()).getOrLoad(anyString(), any());
+    }
+
+    @Test
+    void getUserTimelineServesSmallFirstPageFromCache() {
+        Post second = mock(Post.class);
+        LocalDateTime published = LocalDateTime.of(2025, 3, 1, 12, 0);
+        when(mockPost.getPublishingDate()).thenReturn(published);
+        when(cache.getOrLoad(eq("user_posts_testuser"), any())).thenReturn(Optional.of(List.of(mockPost, second)));
+
+        CursorPage<Post, String> page = postService.getUserTimeline("testuser", null, 1);
+
+        assertEquals(List.of(mockPost), page.getItems());
+        assertEquals(new TimelineCursor(published, 1L), TimelineCursor.decode(page.getNextCursor()));
+        verify(postRepository, never()).findTimeline(anyString(), any());
+    }
+
+    @Test
+    void getUserTimelineLoadsFirstPageOfFixedSize() {
+        when(cache.getOrLoad(eq("user_posts_testuser"), any())).thenAnswer(runLoader());
+        when(postRepository.findTimeline("testuser", Limit.of(PostService.FIRST_PAGE_SIZE + 1)))
+                .thenReturn(List.of(mockPost));
+
+        CursorPage<Post, String> page = postService.getUserTimeline("testuser", null, 5);
+
+        assertEquals(List.of(mockPost), page.getItems());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getUserTimelineDoesNotCacheLaterPages() {
+        LocalDateTime published = LocalDateTime.of(2025, 3, 1, 12, 0, 0, 123_456_000);
+        String cursor = new TimelineCursor(published, 7L).encode();
+        when(postRepository.findTimelineBefore("testuser", published, 7L, Limit.of(21))).thenReturn(List.of(mockPost));
+
+        CursorPage<Post, String> page = postService.getUserTimeline("testuser", cursor, 20);
+
+        assertEquals(1, page.getItems().size());
+        verify(cache, never()).getOrLoad(anyString(), any());
+    }
+
+    @Test
+    void getUserTimelineRejectsForeignCursor() {
+        assertThrows(BadRequestException.class, () -> postService.getUserTimeline("testuser", "7", 20));
+        assertThrows(BadRequestException.class, () -> postService.getUserTimeline("testuser", "not base64!", 20));
+    }
+
+    @Test
+    void createPostAsyncGoesThroughWriteBehind() {
+        when(postWriteBehind.isEnabled()).thenReturn(true);
+        when(postWriteBehind.submit(mockPost)).thenReturn(CompletableFuture.completedFuture(mockPost));
+
+        Post result = postService.createPostAsync(mockPost, mockUser).join();
+
+        assertSame(mockPost, result);
+        verify(postRepository, never()).save(any(Post.class));
+        verify(cache).remove("post_1");
+        verify(cache).remove("user_posts_testuser");
+        verify(collectionVersions).postsChanged();
+    }
+
+    @Test
+    void createdPostIsReturnedEvenIfIndexingFails() {
+        when(postWriteBehind.isEnabled()).thenReturn(true);
+        when(postWriteBehind.submit(mockPost)).thenReturn(CompletableFuture.completedFuture(mockPost));
+        doThrow(new IllegalStateException("index is broken")).when(postSearch).index(mockPost);
+
+        Post result = postService.createPostAsync(mockPost, mockUser).join();
+
+        assertSame(mockPost, result);
+        verify(collectionVersions).postsChanged();
+    }
+
+    @Test
+    void getPostJsonServesCachedBytes() {
+        byte[] json = {'{', '}'};
+        when(cache.getSerialized("post_1")).thenReturn(Optional.of(json));
+
+        assertSame(json, postService.getPostJson(1L).orElseThrow());
+        verifyNoInteractions(postRepository, objectMapper);
+    }
+
+    @Test
+    void getPostJsonEncodesOnceAndAttachesToEntry() throws Exception {
+        byte[] json = {'{', '}'};
+        when(cache.getSerialized("post_1")).thenReturn(Optional.empty());
+        when(cache.getOrLoad(eq("post_1"), any())).thenReturn(Optional.of(mockPost));
+        when(objectMapper.writeValueAsBytes(mockPost)).thenReturn(json);
+
+        assertSame(json, postService.getPostJson(1L).orElseThrow());
+        verify(cache).attachSerialized("post_1", mockPost, json);
     }
 
     @Test
@@ -108,8 +246,9 @@ class PostServiceTest {
 
         Post result = postService.updatePost(1L, updatedData);
 
-        assertEquals("Updated Title", result.getTitle());
-        assertEquals("Updated Content", result.getText());
+        assertSame(mockPost, result);
+        verify(mockPost).setTitle("Updated Title");
+        verify(mockPost).setText("Updated Content");
         verify(cache).put("post_1", mockPost);
         verify(cache).remove("user_posts_testuser");
     }
@@ -123,5 +262,32 @@ class PostServiceTest {
         verify(postRepository).deleteById(1L);
         verify(cache).remove("post_1");
         verify(cache).remove("user_posts_testuser");
+        verify(postSearch).remove(1L);
+    }
+
+    @Test
+    void searchPostsKeepsRankAndDropsDeletedHits() {
+        Post second = mock(Post.class);
+        when(postSearch.search("test", SearchMode.OR, 0, 10)).thenReturn(List.of(
+                new SearchHit(2, 3.0), new SearchHit(1, 2.0), new SearchHit(3, 1.0)));
+        when(cache.get("post_2")).thenReturn(Optional.of(second));
+        when(cache.get("post_1")).thenReturn(Optional.empty());
+        when(cache.get("post_3")).thenReturn(Optional.empty());
+        when(postRepository.findAllById(List.of(1L, 3L))).thenReturn(List.of(mockPost));
+
+        List<Post> result = postService.searchPosts("test", "or", 0, 10);
+
+        assertEquals(List.of(second, mockPost), result);
+        verify(cache, never()).put(anyString(), any());
+        verify(postSearch).remove(3L);
+    }
+
+    @Test
+    void searchPostsRejectsUnknownMode() {
+        assertThrows(BadRequestException.class, () -> postService.searchPosts("test", "xor", 0, 10));
+    }
+
+    private static Answer<Optional<?>> runLoader() {
+        return invocation -> invocation.<Supplier<Optional<?>>>getArgument(1).get();
     }
 }
@@ -0,0 +1,150 @@
+package com.example.postproject.services;
+
+import com.example.postproject.exceptions.ServiceUnavailableException;
+import com.example.postproject.models.Post;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostWriteBehindTest {
+
+    private final RecordingWriter writer = new RecordingWriter();
+    private PostWriteBehind writeBehind;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.release.countDown();
+        if (writeBehind != null) {
+            writeBehind.stop();
+        }
+    }
+
+    @Test
+    void postsQueuedTogetherShareOneCommit() {
+        writeBehind = start(100, 10, Duration.ofSeconds(1));
+        List<CompletableFuture<Post>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(writeBehind.submit(post("post " + i)));
+        }
+
+        results.forEach(result -> assertNotNull(result.join().getId()));
+        assertEquals(List.of(10), writer.batchSizes);
+    }
+
+    @Test
+    void partialBatchIsWrittenAfterMaxDelay() {
+        writeBehind = start(100, 10, Duration.ofMillis(5));
+
+        assertNotNull(writeBehind.submit(post("alone")).join().getId());
+        assertEquals(List.of(1), writer.batchSizes);
+    }
+
+    @Test
+    void fullQueuePushesBack() throws InterruptedException {
+        writer.release = new CountDownLatch(1);
+        writeBehind = start(1, 1, Duration.ZERO);
+        writeBehind.submit(post("in flight"));
+        assertTrue(writer.entered.await(5, TimeUnit.SECONDS));
+        writeBehind.submit(post("queued"));
+
+        assertThrows(ServiceUnavailableException.class, () -> writeBehind.submit(post("rejected")));
+    }
+
+    @Test
+    void failedBatchIsRetriedPostByPost() {
+        writer.failing = "bad";
+        writeBehind = start(100, 3, Duration.ofSeconds(1));
+        CompletableFuture<Post> good = writeBehind.submit(post("good"));
+        CompletableFuture<Post> bad = writeBehind.submit(post("bad"));
+        CompletableFuture<Post> other = writeBehind.submit(post("other"));
+
+        assertNotNull(good.join().getId());
+        assertNotNull(other.join().getId());
+        assertThrows(CompletionException.class, bad::join);
+    }
+
+    @Test
+    void postsSubmittedAfterStopAreRejected() throws InterruptedException {
+        writeBehind = start(100, 10, Duration.ofMillis(5));
+        writeBehind.stop();
+
+        assertThrows(ServiceUnavailableException.class, () -> writeBehind.submit(post("late")));
+        assertEquals(0, writeBehind.queued());
+    }
+
+    @Test
+    void stopWritesWhatIsQueued() throws InterruptedException {
+        writer.release = new CountDownLatch(1);
+        writeBehind = start(100, 1, Duration.ZERO);
+        CompletableFuture<Post> inFlight = writeBehind.submit(post("in flight"));
+        assertTrue(writer.entered.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Post> queued = writeBehind.submit(post("queued"));
+
+        Thread stopper = new Thread(() -> {
+            try {
+                writeBehind.stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        stopper.start();
+        writer.release.countDown();
+        stopper.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertNotNull(inFlight.join().getId());
+        assertNotNull(queued.join().getId());
+    }
+
+    private PostWriteBehind start(int capacity, int maxBatch, Duration maxDelay) {
+        PostWriteBehind started = new PostWriteBehind(writer, true, capacity, maxBatch, maxDelay, Duration.ZERO);
+        started.start();
+        return started;
+    }
+
+    private static Post post(String title) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setText("text");
+        return post;
+    }
+
+    /**assigns ids like the pooled sequence would, and fails batches holding the failing title.*/
+    private static final class RecordingWriter extends PostBatchWriter {
+        private final AtomicLong ids = new AtomicLong();
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private volatile CountDownLatch release = new CountDownLatch(0);
+        private volatile String failing;
+
+        private RecordingWriter() {
+            super(null, 50);
+        }
+
+        @Override
+        public List<Post> insertAll(List<Post> posts) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            posts.forEach(post -> post.setId(ids.incrementAndGet()));
+            if (posts.stream().anyMatch(post -> post.getTitle().equals(failing))) {
+                throw new IllegalStateException("constraint violation");
+            }
+            batchSizes.add(posts.size());
+            return posts;
+        }
+    }
+}
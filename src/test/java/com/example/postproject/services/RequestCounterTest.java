@@ -25,4 +25,16 @@ class RequestCounterTest {
         counter.reset();
         assertEquals(0, counter.getCount());
     }
+
+    @Test
+    void recordPerRoute() {
+        RequestCounter counter = new RequestCounter();
+        counter.record("GET", "/posts/{id}");
+        counter.record("GET", "/posts/{id}");
+        counter.record("POST", "/posts/create");
+
+        assertEquals(3, counter.getCount());
+        assertEquals(2L, counter.getRoutes().get("GET /posts/{id}").get("total"));
+        assertEquals(1L, counter.getRoutes().get("POST /posts/create").get("total"));
+    }
 }
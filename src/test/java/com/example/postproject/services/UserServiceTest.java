@@ -4,19 +4,23 @@ import com.example.postproject.cache.SimpleCache;
 import com.example.postproject.exceptions.BadRequestException;
 import com.example.postproject.models.User;
 import com.example.postproject.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.stubbing.Answer;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +32,12 @@ class UserServiceTest {
     @Mock
     private SimpleCache cache;
 
+    @Mock
+    private CollectionVersions collectionVersions;
+
+    @Mock
+    private ObjectMapper objectMapper;
+
     @Mock
     private User mockUser;
 
@@ -39,13 +49,13 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
-        when(mockUser.getId()).thenReturn(1L);
-        when(mockUser.getUsername()).thenReturn("testuser");
-        when(mockUser.getEmail()).thenReturn("test@example.com");
-        when(mockUser.getPassword()).thenReturn("password");
+        lenient().when(mockUser.getId()).thenReturn(1L);
+        lenient().when(mockUser.getUsername()).thenReturn("testuser");
+        lenient().when(mockUser.getEmail()).thenReturn("test@example.com");
+        lenient().when(mockUser.getPassword()).thenReturn("password");
 
-        when(mockUpdatedData.getEmail()).thenReturn("new@example.com");
-        when(mockUpdatedData.getUsername()).thenReturn("newuser");
+        lenient().when(mockUpdatedData.getEmail()).thenReturn("new@example.com");
+        lenient().when(mockUpdatedData.getUsername()).thenReturn("newuser");
     }
 
     @Test
@@ -57,32 +67,45 @@ class UserServiceTest {
         assertNotNull(result);
         assertEquals(mockUser.getId(), result.getId());
         verify(userRepository).save(mockUser);
+        verify(cache).remove("user_1");
+        verify(cache).remove("user_username_testuser");
         verify(cache).remove("all_users");
+        verify(collectionVersions).usersChanged();
     }
 
     @Test
     void getAllUsers() {
         List<User> users = Arrays.asList(mockUser);
-        when(cache.get("all_users")).thenReturn(Optional.empty());
+        when(cache.getOrLoad(eq("all_users"), any())).thenAnswer(runLoader());
         when(userRepository.findAll()).thenReturn(users);
 
         List<User> result = userService.getAllUsers();
 
         assertEquals(1, result.size());
         verify(userRepository).findAll();
-        verify(cache).put("all_users", users);
     }
 
     @Test
     void getUserById() {
-        when(cache.get("user_1")).thenReturn(Optional.empty());
+        when(cache.getOrLoad(eq("user_1"), any())).thenAnswer(runLoader());
         when(userRepository.findById(1L)).thenReturn(Optional.of(mockUser));
 
         Optional<User> result = userService.getUserById(1L);
 
         assertTrue(result.isPresent());
         assertEquals(mockUser.getId(), result.get().getId());
-        verify(cache).put("user_1", mockUser);
+        verify(userRepository).findById(1L);
+    }
+
+    @Test
+    void getUserJsonEncodesOnceAndAttachesToEntry() throws Exception {
+        byte[] json = {'{', '}'};
+        when(cache.getSerialized("user_1")).thenReturn(Optional.empty());
+        when(cache.getOrLoad(eq("user_1"), any())).thenReturn(Optional.of(mockUser));
+        when(objectMapper.writeValueAsBytes(mockUser)).thenReturn(json);
+
+        assertSame(json, userService.getUserJson(1L).orElseThrow());
+        verify(cache).attachSerialized("user_1", mockUser, json);
     }
 
     @Test
@@ -92,8 +115,9 @@ class UserServiceTest {
 
         User result = userService.updateUser(1L, mockUpdatedData);
 
-        assertEquals("new@example.com", result.getEmail());
-        assertEquals("newuser", result.getUsername());
+        assertSame(mockUser, result);
+        verify(mockUser).setEmail("new@example.com");
+        verify(mockUser).setUsername("newuser");
         verify(cache).put("user_1", mockUser);
         verify(cache).remove("all_users");
     }
@@ -108,4 +132,8 @@ class UserServiceTest {
         verify(cache).remove("user_1");
         verify(cache).remove("all_users");
     }
+
+    private static Answer<Optional<?>> runLoader() {
+        return invocation -> invocation.<Supplier<Optional<?>>>getArgument(1).get();
+    }
 }